@@ -0,0 +1,204 @@
+package com.project.catxi.fcm.bench;
+
+import com.project.catxi.common.domain.MemberStatus;
+import com.project.catxi.fcm.domain.DevicePlatform;
+import com.project.catxi.fcm.domain.FcmDeviceToken;
+import com.project.catxi.fcm.gateway.LocalPushGateway;
+import com.project.catxi.fcm.gateway.PushMessage;
+import com.project.catxi.fcm.repository.FcmDeviceTokenRepository;
+import com.project.catxi.fcm.service.FcmQueueService;
+import com.project.catxi.fcm.util.FcmTokenHasher;
+import com.project.catxi.member.domain.Member;
+import com.project.catxi.member.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * FCM 파이프라인 부하 측정 (enqueue → 스트림 → 컨슈머 → 발송 → 게이트웨이 완료)
+ * - LocalPushGateway 위에서만 동작하며 실제 푸시는 나가지 않음
+ * - 실행: ./gradlew benchRun (bench 소스셋 전용, 실행 jar 에는 포함되지 않음)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "push.bench", name = "enabled", havingValue = "true")
+public class FcmPipelineBenchmark {
+
+    private static final String MARKER = "bench:";
+    private static final String EMAIL_FORMAT = "bench-%d@catxi.local";
+
+    private final FcmQueueService fcmQueueService;
+    private final MemberRepository memberRepository;
+    private final FcmDeviceTokenRepository fcmDeviceTokenRepository;
+    private final LocalPushGateway localPushGateway;
+
+    private final int ratePerSecond;
+    private final int durationSeconds;
+    private final int memberCount;
+    private final int recipientsPerMessage;
+    private final long drainSeconds;
+
+    // 발송 완료 지연 샘플 (마이크로초)
+    private final long[] samples;
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    public FcmPipelineBenchmark(
+            FcmQueueService fcmQueueService,
+            MemberRepository memberRepository,
+            FcmDeviceTokenRepository fcmDeviceTokenRepository,
+            LocalPushGateway localPushGateway,
+            @Value("${push.bench.rate-per-second:200}") int ratePerSecond,
+            @Value("${push.bench.duration-seconds:30}") int durationSeconds,
+            @Value("${push.bench.members:50}") int memberCount,
+            @Value("${push.bench.recipients-per-message:3}") int recipientsPerMessage,
+            @Value("${push.bench.drain-seconds:15}") long drainSeconds) {
+        this.fcmQueueService = fcmQueueService;
+        this.memberRepository = memberRepository;
+        this.fcmDeviceTokenRepository = fcmDeviceTokenRepository;
+        this.localPushGateway = localPushGateway;
+        this.ratePerSecond = ratePerSecond;
+        this.durationSeconds = durationSeconds;
+        this.memberCount = memberCount;
+        this.recipientsPerMessage = Math.min(recipientsPerMessage, memberCount);
+        this.drainSeconds = drainSeconds;
+        this.samples = new long[(int) Math.min(Integer.MAX_VALUE - 8, (long) ratePerSecond * durationSeconds * this.recipientsPerMessage)];
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread runner = new Thread(this::run, "fcm-bench");
+        runner.setDaemon(true);
+        runner.start();
+    }
+
+    private void run() {
+        try {
+            List<Long> memberIds = ensureBenchMembers();
+            localPushGateway.addDeliveryListener(this::recordDelivery);
+
+            log.info("FCM 벤치마크 시작 - 속도: {}/s, 시간: {}s, 수신자/메시지: {}",
+                    ratePerSecond, durationSeconds, recipientsPerMessage);
+
+            long total = (long) ratePerSecond * durationSeconds;
+            long intervalNanos = 1_000_000_000L / Math.max(ratePerSecond, 1);
+            long startedAt = System.nanoTime();
+            long messageIdBase = System.currentTimeMillis() * 1000;
+
+            for (long i = 0; i < total; i++) {
+                // 고정 속도로 발행 (지연이 생겨도 예정 시각 기준으로 따라잡음)
+                long scheduledAt = startedAt + i * intervalNanos;
+                long wait = scheduledAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                fcmQueueService.publishChatNotification(
+                        pickRecipients(memberIds), 0L, messageIdBase + i, "bench", MARKER + System.nanoTime());
+            }
+            long publishNanos = System.nanoTime() - startedAt;
+
+            Thread.sleep(drainSeconds * 1000);
+            report(total, publishNanos);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("FCM 벤치마크 실행 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    private List<Long> ensureBenchMembers() {
+        List<Long> ids = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            String email = String.format(EMAIL_FORMAT, i);
+            Member member = memberRepository.findByEmail(email)
+                    .orElseGet(() -> memberRepository.save(Member.builder()
+                            .email(email)
+                            .membername("bench")
+                            .nickname("bench")
+                            .password("bench")
+                            .isLogin(false)
+                            .status(MemberStatus.ACTIVE)
+                            .build()));
+            String token = fakeToken(email);
+            String tokenHash = FcmTokenHasher.hash(token);
+            if (fcmDeviceTokenRepository.findByTokenHash(tokenHash).isEmpty()) {
+                fcmDeviceTokenRepository.save(FcmDeviceToken.of(member.getId(), token, tokenHash, DevicePlatform.ANDROID));
+            }
+            ids.add(member.getId());
+        }
+        return ids;
+    }
+
+    // isValidFcmToken 검증(140자 이상, URL-safe 문자)을 통과하는 가짜 토큰
+    private String fakeToken(String email) {
+        String seed = email.replaceAll("[^A-Za-z0-9]", "_");
+        StringBuilder token = new StringBuilder("bench:");
+        while (token.length() < 152) {
+            token.append(seed);
+        }
+        return token.substring(0, 152);
+    }
+
+    private List<Long> pickRecipients(List<Long> memberIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int offset = random.nextInt(memberIds.size());
+        List<Long> recipients = new ArrayList<>(recipientsPerMessage);
+        for (int i = 0; i < recipientsPerMessage; i++) {
+            recipients.add(memberIds.get((offset + i) % memberIds.size()));
+        }
+        return recipients;
+    }
+
+    private void recordDelivery(PushMessage message) {
+        String body = message.data().get("body");
+        int markerIndex = body != null ? body.lastIndexOf(MARKER) : -1;
+        if (markerIndex < 0) {
+            return;
+        }
+
+        try {
+            long publishedAt = Long.parseLong(body.substring(markerIndex + MARKER.length()));
+            long latencyMicros = (System.nanoTime() - publishedAt) / 1000;
+            for (int i = 0; i < message.tokens().size(); i++) {
+                long index = sampleCount.getAndIncrement();
+                if (index < samples.length) {
+                    samples[(int) index] = latencyMicros;
+                }
+            }
+        } catch (NumberFormatException e) {
+            log.debug("벤치마크 마커 파싱 실패: {}", body);
+        }
+    }
+
+    private void report(long published, long publishNanos) {
+        int count = (int) Math.min(sampleCount.get(), samples.length);
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        double publishSeconds = publishNanos / 1_000_000_000.0;
+        log.info("FCM 벤치마크 결과 - 발행: {}건 ({}/s), 전달 토큰: {}건 (기대: {}), 지연(ms) p50: {}, p90: {}, p99: {}, max: {}",
+                published, String.format("%.1f", published / publishSeconds),
+                count, published * recipientsPerMessage,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                count > 0 ? String.format("%.1f", sorted[count - 1] / 1000.0) : "-");
+    }
+
+    private String percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return "-";
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return String.format("%.1f", sorted[Math.max(index, 0)] / 1000.0);
+    }
+}
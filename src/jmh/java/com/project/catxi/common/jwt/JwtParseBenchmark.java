@@ -0,0 +1,66 @@
+package com.project.catxi.common.jwt;
+
+import com.project.catxi.common.config.security.JwtConfig;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JwtUtil.parseJwt - 검증 클레임 캐시 유무 비교
+ * uncached: 캐시 크기 0 (매 요청 HMAC 검증 + JSON 파싱), cached: 같은 토큰 반복 요청
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtParseBenchmark {
+
+  private JwtUtil uncached;
+  private JwtUtil cached;
+  private String token;
+
+  @Setup
+  public void setup() {
+    byte[] secret = new byte[32];
+    ThreadLocalRandom.current().nextBytes(secret);
+    JwtConfig jwtConfig = new JwtConfig();
+    jwtConfig.setSecret(Base64.getEncoder().encodeToString(secret));
+
+    uncached = new JwtUtil(jwtConfig, new VerifiedClaimsCache(new SimpleMeterRegistry(), 0));
+    cached = new JwtUtil(jwtConfig, new VerifiedClaimsCache(new SimpleMeterRegistry(), 10_000));
+
+    SecretKey key = Keys.hmacShaKeyFor(secret);
+    long now = System.currentTimeMillis();
+    token = Jwts.builder()
+        .subject("benchmark@catxi.com")
+        .claim("type", "access")
+        .claim("email", "benchmark@catxi.com")
+        .claim("role", "ROLE_USER")
+        .issuedAt(new Date(now))
+        .expiration(new Date(now + TimeUnit.HOURS.toMillis(1)))
+        .signWith(key)
+        .compact();
+  }
+
+  @Benchmark
+  public Claims uncached() {
+    return uncached.parseJwt(token);
+  }
+
+  @Benchmark
+  public Claims cached() {
+    return cached.parseJwt(token);
+  }
+}
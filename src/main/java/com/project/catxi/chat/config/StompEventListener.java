@@ -13,7 +13,7 @@ import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 import org.springframework.web.socket.messaging.SessionSubscribeEvent;
 import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
 
-import com.project.catxi.fcm.service.FcmActiveStatusService;
+import com.project.catxi.chat.service.PresenceService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,8 +24,7 @@ import lombok.extern.slf4j.Slf4j;
 public class StompEventListener {
 	private final Set<String> sessions = ConcurrentHashMap.newKeySet();
 	private final Map<String, String> sessionUserMap = new ConcurrentHashMap<>(); // sessionId -> email
-	private final Map<String, Long> sessionRoomMap = new ConcurrentHashMap<>(); // sessionId -> roomId
-	private final FcmActiveStatusService fcmActiveStatusService;
+	private final PresenceService presenceService;
 
 	@EventListener
 	public void connectHandle(SessionConnectEvent event){
@@ -37,6 +36,7 @@ public class StompEventListener {
 		if (accessor.getUser() != null) {
 			String email = accessor.getUser().getName();
 			sessionUserMap.put(sessionId, email);
+			presenceService.connect(sessionId, email);
 			log.info("[WebSocket 연결] SessionId: {}, Email: {}", sessionId, email);
 		}
 		
@@ -50,18 +50,12 @@ public class StompEventListener {
 		String sessionId = accessor.getSessionId();
 		
 		// 활성 상태 비활성화
-		String email = sessionUserMap.get(sessionId);
-		Long roomId = sessionRoomMap.get(sessionId);
-		
-		if (email != null && roomId != null) {
-			fcmActiveStatusService.updateUserActiveStatus(email, roomId, false);
-			log.info("[WebSocket 해제] FCM 활성 상태 비활성화 - Email: {}, RoomId: {}", email, roomId);
-		}
+		presenceService.disconnect(sessionId);
+		log.info("[WebSocket 해제] 활성 상태 비활성화 - SessionId: {}, Email: {}", sessionId, sessionUserMap.get(sessionId));
 		
 		// 세션 정보 정리
 		sessions.remove(sessionId);
 		sessionUserMap.remove(sessionId);
-		sessionRoomMap.remove(sessionId);
 		
 		System.out.println("disconnect session Id" + sessionId);
 		System.out.println("total session : "+sessions.size());
@@ -94,9 +88,8 @@ public class StompEventListener {
 				Long roomId = Long.parseLong(roomIdStr);
 
 				if (email != null) {
-					sessionRoomMap.put(sessionId, roomId);
-					fcmActiveStatusService.updateUserActiveStatus(email, roomId, true);
-					log.debug("채팅방 구독 시 FCM 활성 상태 활성화 - Email: {}, RoomId: {}", email, roomId);
+					presenceService.enterRoom(sessionId, email, roomId);
+					log.debug("채팅방 구독 시 활성 상태 활성화 - Email: {}, RoomId: {}", email, roomId);
 				}
 			} catch (NumberFormatException e) {
 				log.warn("채팅방 ID 파싱 실패 - Destination: {}", destination);
@@ -111,15 +104,10 @@ public class StompEventListener {
 
 		// 구독 해제 시 활성 상태 비활성화
 		String email = sessionUserMap.get(sessionId);
-		Long roomId = sessionRoomMap.get(sessionId);
 
-		log.info("[채널 구독 해제] sessionId: {}, email: {}, roomId: {}", sessionId, email, roomId);
+		log.info("[채널 구독 해제] sessionId: {}, email: {}", sessionId, email);
 
-		if (email != null && roomId != null) {
-			fcmActiveStatusService.updateUserActiveStatus(email, roomId, false);
-			sessionRoomMap.remove(sessionId);
-			log.debug("구독 해제 시 FCM 활성 상태 비활성화 - Email: {}, RoomId: {}", email, roomId);
-		}
+		presenceService.leaveRoom(sessionId);
 	}
 }
 
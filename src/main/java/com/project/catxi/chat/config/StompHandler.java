@@ -5,6 +5,7 @@ import java.util.Collections;
 
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
@@ -14,6 +15,7 @@ import org.springframework.stereotype.Component;
 
 
 import com.project.catxi.chat.service.ChatRoomService;
+import com.project.catxi.chat.service.PresenceService;
 import com.project.catxi.common.api.error.MemberErrorCode;
 import com.project.catxi.common.api.handler.MemberHandler;
 import com.project.catxi.common.jwt.JwtUtil;
@@ -29,11 +31,18 @@ public class StompHandler implements ChannelInterceptor {
 
 	private final JwtUtil jwtUtil;
 	private final ChatRoomService chatRoomService;
+	private final PresenceService presenceService;
 
 	@Override
 	public Message<?> preSend(Message<?> message, MessageChannel channel) {
 		final StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
 
+		// 하트비트/메시지 전송 시 채팅방 활성 상태 갱신 (Redis 쓰기 간격 제한은 PresenceService 에서)
+		if (accessor.getSessionId() != null
+			&& (SimpMessageType.HEARTBEAT == accessor.getMessageType() || StompCommand.SEND == accessor.getCommand())) {
+			presenceService.heartbeat(accessor.getSessionId());
+		}
+
 		if (StompCommand.CONNECT == accessor.getCommand()) {
 			String token = extractToken(accessor);
 			try {
@@ -1,8 +1,10 @@
 package com.project.catxi.chat.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -12,9 +14,12 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class StompWebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
 	private final StompHandler stompHandler;
+	private final ThreadPoolTaskScheduler heartbeatScheduler;
 
-	public StompWebSocketConfig(StompHandler stompHandler) {
+	public StompWebSocketConfig(StompHandler stompHandler,
+		@Qualifier("commonTaskScheduler") ThreadPoolTaskScheduler heartbeatScheduler) {
 		this.stompHandler = stompHandler;
+		this.heartbeatScheduler = heartbeatScheduler;
 	}
 
     @Override
@@ -38,7 +43,10 @@ public class StompWebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
 		//  /topic/1 형태로 메시지 수신해야 함을 설정
 		// /topic 로 시작하는 url 패턴으로 메시지가 발행되면 @Controller 객체의 @MessageMapping 메서드로 라우팅
-		registry.enableSimpleBroker("/topic","/queue");
+		// 클라이언트 하트비트(10초)로 채팅방 활성 상태(presence) 리스 갱신
+		registry.enableSimpleBroker("/topic","/queue")
+			.setHeartbeatValue(new long[] {10000, 10000})
+			.setTaskScheduler(heartbeatScheduler);
 		registry.setUserDestinationPrefix("/user");
 	}
 
@@ -41,4 +41,9 @@ public record ChatRoomRes (
 			chatRoom.getCreatedTime()
 		);
 	}
+
+	public ChatRoomRes withMatchCount(Integer matchCount) {
+		return new ChatRoomRes(roomId, hostId, hostName, hostNickname, matchCount, startPoint, endPoint,
+			recruitSize, currentSize, status, departAt, createdTime);
+	}
 }
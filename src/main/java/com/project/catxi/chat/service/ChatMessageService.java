@@ -29,7 +29,6 @@ import com.project.catxi.common.domain.MessageType;
 import com.project.catxi.member.domain.Member;
 import com.project.catxi.member.repository.MemberRepository;
 import com.project.catxi.fcm.service.FcmQueueService;
-import com.project.catxi.fcm.service.FcmActiveStatusService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -46,7 +45,6 @@ public class ChatMessageService {
 	private final ObjectMapper objectMapper;
 	private final @Qualifier("chatPubSub") StringRedisTemplate redisTemplate;
 	private final FcmQueueService fcmQueueService;
-	private final FcmActiveStatusService fcmActiveStatusService;
 
 	public void saveMessage(Long roomId,ChatMessageSendReq req) {
 		ChatRoom room = chatRoomRepository.findById(roomId)
@@ -84,18 +82,22 @@ public class ChatMessageService {
 			// 방에 참여한 다른 사용자들 조회 (발송자 제외)
 			List<ChatParticipant> participants = chatParticipantRepository.findByChatRoom(room);
 
-            participants.stream()
+            List<Long> targetMemberIds = participants.stream()
                 .filter(participant -> participant.getMember() != null)
-                .filter(participant -> !participant.getMember().getId().equals(sender.getId()))
-                .forEach(participant -> {
-                    fcmQueueService.publishChatNotification(
-                        participant.getMember().getId(),
-                        room.getRoomId(),
-                        savedMessage.getId(),
-                        sender.getNickname() != null ? sender.getNickname() : sender.getMembername(),
-                        message
-                    );
-                });
+                .map(participant -> participant.getMember().getId())
+                .filter(memberId -> !memberId.equals(sender.getId()))
+                .toList();
+
+            // 메시지당 이벤트 1건 (수신자 전체 포함)
+            if (!targetMemberIds.isEmpty()) {
+                fcmQueueService.publishChatNotification(
+                    targetMemberIds,
+                    room.getRoomId(),
+                    savedMessage.getId(),
+                    sender.getNickname() != null ? sender.getNickname() : sender.getMembername(),
+                    message
+                );
+            }
 
             log.info("Chat FCM 큐 등록 완료: RoomId={}, MessageId={}",
                     room.getRoomId(), savedMessage.getId());
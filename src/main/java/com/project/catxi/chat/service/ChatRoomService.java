@@ -8,6 +8,7 @@ import java.time.LocalDateTime;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -41,6 +42,8 @@ import com.project.catxi.common.api.error.ChatParticipantErrorCode;
 import com.project.catxi.common.api.error.ChatRoomErrorCode;
 import com.project.catxi.common.api.error.MemberErrorCode;
 import com.project.catxi.common.api.exception.CatxiException;
+import com.project.catxi.common.counter.StatCounter;
+import com.project.catxi.common.counter.StatCounterService;
 import com.project.catxi.common.domain.Location;
 import com.project.catxi.common.domain.RoomStatus;
 import com.project.catxi.member.domain.Member;
@@ -68,6 +71,8 @@ public class ChatRoomService {
 
 	private final ChatMessageService chatMessageService;
 
+	private final StatCounterService statCounterService;
+
 
 	public RoomCreateRes createRoom(RoomCreateReq roomReq, String email) {
 		Member host = memberRepository.findByEmail(email)
@@ -118,7 +123,16 @@ public class ChatRoomService {
 			default -> throw new CatxiException(ChatRoomErrorCode.INVALID_CHATROOM_PARAMETER);
 		};
 
-		return chatRoomRepository.findByLocationAndDirection(location, direction, pageable);
+		Page<ChatRoomRes> rooms = chatRoomRepository.findByLocationAndDirection(location, direction, pageable);
+
+		// 방장 매칭 횟수에 반영 대기 중인 증가분 적용 (한 번의 파이프라인 조회)
+		Map<Long, Long> pending = statCounterService.getPendingDeltas(
+			StatCounter.MEMBER_MATCH_COUNT, rooms.map(ChatRoomRes::hostId).getContent());
+		if (pending.isEmpty()) {
+			return rooms;
+		}
+		return rooms.map(room -> room.withMatchCount(
+			room.matchCount() + pending.getOrDefault(room.hostId(), 0L).intValue()));
 	}
 
 
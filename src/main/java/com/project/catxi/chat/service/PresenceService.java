@@ -0,0 +1,379 @@
+package com.project.catxi.chat.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import com.project.catxi.common.api.error.MemberErrorCode;
+import com.project.catxi.common.api.exception.CatxiException;
+import com.project.catxi.member.domain.Member;
+import com.project.catxi.member.repository.MemberRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 채팅방 접속 상태(presence) 단일 관리 서비스
+ * - 채팅방별 ZSET(presence:room:{roomId})에 memberId를 마지막 확인 시각(ms)으로 저장
+ * - STOMP 구독/하트비트가 점수를 갱신하고, 리스(lease)보다 오래된 멤버는 쓰기 시 지연 정리
+ * - 노드가 죽어 하트비트가 끊기면 리스 만료로 자연스럽게 비활성 처리
+ * - 같은 멤버의 여러 세션(기기/탭)은 presence:room:{roomId}:sessions 에 "memberId:sessionId" 로 따로 기록하고,
+ *   세션이 나갈 때 같은 방에 남은 세션이 없을 때만 멤버를 제거
+ */
+@Slf4j
+@Service
+public class PresenceService {
+
+	private static final String ROOM_PRESENCE_KEY = "presence:room:%d";
+	private static final String ROOM_SESSIONS_KEY = "presence:room:%d:sessions";
+	private static final String MEMBER_CACHE_KEY_PREFIX = "member:email:%s";
+	private static final int MEMBER_CACHE_TTL_MINUTES = 30; // 멤버 캐시 30분 TTL
+
+	// 점수 갱신 + 만료 멤버 정리 + 키 TTL 연장을 1회 왕복으로 처리
+	private static final String TOUCH_SCRIPT =
+		"redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2]) " +
+		"redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[3]) " +
+		"redis.call('PEXPIRE', KEYS[1], ARGV[4]) " +
+		"return 1";
+
+	// 세션 단위 갱신 - 멤버 점수와 세션 점수를 함께 갱신
+	// KEYS[1] = 방 멤버 ZSET, KEYS[2] = 방 세션 ZSET / ARGV = now, memberId, memberId:sessionId, 만료 기준, TTL
+	private static final String TOUCH_SESSION_SCRIPT =
+		"redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2]) " +
+		"redis.call('ZADD', KEYS[2], ARGV[1], ARGV[3]) " +
+		"redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[4]) " +
+		"redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', '(' .. ARGV[4]) " +
+		"redis.call('PEXPIRE', KEYS[1], ARGV[5]) " +
+		"redis.call('PEXPIRE', KEYS[2], ARGV[5]) " +
+		"return 1";
+
+	// 세션 퇴장 - 같은 방에 살아있는 같은 멤버의 세션이 없을 때만 멤버 제거 (방 인원이 적어 세션 목록 순회)
+	// KEYS[1] = 방 멤버 ZSET, KEYS[2] = 방 세션 ZSET / ARGV = memberId, memberId:sessionId, 만료 기준
+	// 반환: 1 멤버 제거, 0 다른 세션이 남아 유지
+	private static final String RELEASE_SESSION_SCRIPT =
+		"redis.call('ZREM', KEYS[2], ARGV[2]) " +
+		"redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', '(' .. ARGV[3]) " +
+		"local prefix = ARGV[1] .. ':' " +
+		"for _, entry in ipairs(redis.call('ZRANGE', KEYS[2], 0, -1)) do " +
+		"  if string.sub(entry, 1, #prefix) == prefix then return 0 end " +
+		"end " +
+		"redis.call('ZREM', KEYS[1], ARGV[1]) " +
+		"return 1";
+
+	private final StringRedisTemplate redisTemplate;
+	private final MemberRepository memberRepository;
+	private final DefaultRedisScript<Long> touchScript;
+	private final DefaultRedisScript<Long> touchSessionScript;
+	private final DefaultRedisScript<Long> releaseSessionScript;
+
+	private final long leaseMs;
+	private final long refreshIntervalMs;
+
+	// 이 노드에 연결된 STOMP 세션 (sessionId -> 세션 상태)
+	private final Map<String, PresenceSession> sessions = new ConcurrentHashMap<>();
+
+	public PresenceService(
+		@Qualifier("chatPubSub") StringRedisTemplate redisTemplate,
+		MemberRepository memberRepository,
+		@Value("${presence.lease-ms:60000}") long leaseMs,
+		@Value("${presence.refresh-interval-ms:20000}") long refreshIntervalMs) {
+		this.redisTemplate = redisTemplate;
+		this.memberRepository = memberRepository;
+		this.leaseMs = leaseMs;
+		this.refreshIntervalMs = refreshIntervalMs;
+		this.touchScript = new DefaultRedisScript<>(TOUCH_SCRIPT, Long.class);
+		this.touchSessionScript = new DefaultRedisScript<>(TOUCH_SESSION_SCRIPT, Long.class);
+		this.releaseSessionScript = new DefaultRedisScript<>(RELEASE_SESSION_SCRIPT, Long.class);
+	}
+
+	/**
+	 * STOMP 세션 연결
+	 */
+	public void connect(String sessionId, String email) {
+		sessions.put(sessionId, new PresenceSession(email));
+	}
+
+	/**
+	 * 채팅방 구독 - 이전 채팅방이 있으면 정리 후 즉시 활성 처리
+	 */
+	public void enterRoom(String sessionId, String email, Long roomId) {
+		PresenceSession session = sessions.computeIfAbsent(sessionId, id -> new PresenceSession(email));
+		try {
+			if (session.memberId == null) {
+				session.memberId = resolveMemberId(session.email);
+			}
+			Long previousRoomId = session.roomId;
+			if (previousRoomId != null && !previousRoomId.equals(roomId)) {
+				releaseSession(sessionId, session.memberId, previousRoomId);
+			}
+			session.roomId = roomId;
+			session.lastRefreshedAt = System.currentTimeMillis();
+			touchSession(sessionId, session.memberId, roomId);
+		} catch (CatxiException e) {
+			log.error("사용자 정보 조회 실패 - Email: {}, RoomId: {}, Error: {}", email, roomId, e.getMessage());
+		} catch (Exception e) {
+			log.error("채팅방 입장 상태 설정 실패 - Email: {}, RoomId: {}, Error: {}", email, roomId, e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 채팅방 구독 해제
+	 */
+	public void leaveRoom(String sessionId) {
+		PresenceSession session = sessions.get(sessionId);
+		if (session == null || session.roomId == null) {
+			return;
+		}
+		Long roomId = session.roomId;
+		session.roomId = null;
+		if (session.memberId != null) {
+			releaseSession(sessionId, session.memberId, roomId);
+		}
+	}
+
+	/**
+	 * STOMP 세션 종료
+	 */
+	public void disconnect(String sessionId) {
+		PresenceSession session = sessions.remove(sessionId);
+		if (session != null && session.roomId != null && session.memberId != null) {
+			releaseSession(sessionId, session.memberId, session.roomId);
+		}
+	}
+
+	/**
+	 * STOMP 하트비트/프레임 수신 - refreshIntervalMs 간격으로만 Redis 갱신
+	 */
+	public void heartbeat(String sessionId) {
+		PresenceSession session = sessions.get(sessionId);
+		if (session == null || session.roomId == null || session.memberId == null) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		if (now - session.lastRefreshedAt < refreshIntervalMs) {
+			return;
+		}
+		session.lastRefreshedAt = now;
+		touchSession(sessionId, session.memberId, session.roomId);
+	}
+
+	/**
+	 * 이메일 기준 활성 상태 변경 (클라이언트 명시 호출용)
+	 */
+	public void updateActiveStatus(String email, Long roomId, boolean isActive) {
+		try {
+			Long memberId = resolveMemberId(email);
+			if (isActive) {
+				markActive(memberId, roomId);
+			} else {
+				markInactive(memberId, roomId);
+			}
+		} catch (CatxiException e) {
+			log.error("사용자 정보 조회 실패 - Email: {}, RoomId: {}, Active: {}, Error: {}",
+				email, roomId, isActive, e.getMessage());
+		} catch (Exception e) {
+			log.error("사용자 활성 상태 업데이트 실패 - Email: {}, RoomId: {}, Active: {}, Error: {}",
+				email, roomId, isActive, e.getMessage(), e);
+		}
+	}
+
+	public void markActive(Long memberId, Long roomId) {
+		try {
+			long now = System.currentTimeMillis();
+			redisTemplate.execute(touchScript, List.of(roomKey(roomId)),
+				String.valueOf(now), memberId.toString(), String.valueOf(now - leaseMs), String.valueOf(leaseMs * 2));
+			log.debug("사용자 활성 상태 갱신 - MemberId: {}, RoomId: {}", memberId, roomId);
+		} catch (Exception e) {
+			// 활성 상태 갱신 실패가 다른 기능에 영향을 주지 않도록 예외를 던지지 않음
+			log.error("사용자 활성 상태 갱신 실패 - MemberId: {}, RoomId: {}, Error: {}",
+				memberId, roomId, e.getMessage());
+		}
+	}
+
+	public void markInactive(Long memberId, Long roomId) {
+		try {
+			redisTemplate.opsForZSet().remove(roomKey(roomId), memberId.toString());
+			log.debug("사용자 비활성 상태 설정 - MemberId: {}, RoomId: {}", memberId, roomId);
+		} catch (Exception e) {
+			log.error("사용자 비활성 상태 설정 실패 - MemberId: {}, RoomId: {}, Error: {}",
+				memberId, roomId, e.getMessage());
+		}
+	}
+
+	private void touchSession(String sessionId, Long memberId, Long roomId) {
+		try {
+			long now = System.currentTimeMillis();
+			redisTemplate.execute(touchSessionScript, List.of(roomKey(roomId), roomSessionsKey(roomId)),
+				String.valueOf(now), memberId.toString(), sessionMember(memberId, sessionId),
+				String.valueOf(now - leaseMs), String.valueOf(leaseMs * 2));
+			log.debug("세션 활성 상태 갱신 - MemberId: {}, RoomId: {}, SessionId: {}", memberId, roomId, sessionId);
+		} catch (Exception e) {
+			log.error("세션 활성 상태 갱신 실패 - MemberId: {}, RoomId: {}, SessionId: {}, Error: {}",
+				memberId, roomId, sessionId, e.getMessage());
+		}
+	}
+
+	private void releaseSession(String sessionId, Long memberId, Long roomId) {
+		try {
+			Long removed = redisTemplate.execute(releaseSessionScript, List.of(roomKey(roomId), roomSessionsKey(roomId)),
+				memberId.toString(), sessionMember(memberId, sessionId),
+				String.valueOf(System.currentTimeMillis() - leaseMs));
+			log.debug("세션 퇴장 - MemberId: {}, RoomId: {}, SessionId: {}, 멤버 비활성: {}",
+				memberId, roomId, sessionId, Long.valueOf(1L).equals(removed));
+		} catch (Exception e) {
+			log.error("세션 퇴장 처리 실패 - MemberId: {}, RoomId: {}, SessionId: {}, Error: {}",
+				memberId, roomId, sessionId, e.getMessage());
+		}
+	}
+
+	/**
+	 * 채팅방의 현재 활성 사용자 (ZRANGEBYSCORE, O(log n + m))
+	 */
+	public Set<Long> getActiveMembers(Long roomId) {
+		try {
+			long now = System.currentTimeMillis();
+			Set<String> members = redisTemplate.opsForZSet()
+				.rangeByScore(roomKey(roomId), now - leaseMs, Double.POSITIVE_INFINITY);
+			if (members == null) {
+				return Set.of();
+			}
+			return members.stream().map(Long::valueOf).collect(Collectors.toSet());
+		} catch (Exception e) {
+			log.error("채팅방 활성 사용자 조회 실패 - RoomId: {}, Error: {}", roomId, e.getMessage());
+			return Set.of();
+		}
+	}
+
+	public boolean isActive(Long memberId, Long roomId) {
+		return findActiveMembersInRoom(List.of(memberId), roomId).get(0);
+	}
+
+	/**
+	 * 한 채팅방의 여러 사용자 활성 상태를 한 번에 확인
+	 *
+	 * @return 활성 사용자 위치의 비트가 켜진 BitSet (memberIds 순서 기준)
+	 */
+	public BitSet findActiveMembersInRoom(List<Long> memberIds, Long roomId) {
+		List<Long> roomIds = new ArrayList<>(memberIds.size());
+		for (int i = 0; i < memberIds.size(); i++) {
+			roomIds.add(roomId);
+		}
+		return findActiveMembers(memberIds, roomIds);
+	}
+
+	/**
+	 * (사용자, 채팅방) 쌍들의 활성 상태를 한 번에 확인
+	 * 채팅방별 ZMSCORE를 파이프라인으로 묶어 1회 왕복
+	 *
+	 * @param memberIds 멤버 ID 목록
+	 * @param roomIds 같은 위치의 채팅방 ID 목록
+	 * @return 활성 쌍 위치의 비트가 켜진 BitSet (입력 순서 기준)
+	 */
+	public BitSet findActiveMembers(List<Long> memberIds, List<Long> roomIds) {
+		BitSet active = new BitSet(memberIds.size());
+		if (memberIds.isEmpty()) {
+			return active;
+		}
+		try {
+			// 채팅방별로 (입력 위치, 멤버) 묶기
+			Map<Long, List<Integer>> positionsByRoom = new LinkedHashMap<>();
+			for (int i = 0; i < memberIds.size(); i++) {
+				positionsByRoom.computeIfAbsent(roomIds.get(i), id -> new ArrayList<>()).add(i);
+			}
+
+			List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+				@Override
+				@SuppressWarnings("unchecked")
+				public Object execute(RedisOperations operations) throws DataAccessException {
+					for (Map.Entry<Long, List<Integer>> entry : positionsByRoom.entrySet()) {
+						Object[] members = entry.getValue().stream()
+							.map(position -> memberIds.get(position).toString())
+							.toArray();
+						operations.opsForZSet().score(roomKey(entry.getKey()), members);
+					}
+					return null;
+				}
+			});
+
+			long threshold = System.currentTimeMillis() - leaseMs;
+			int roomIndex = 0;
+			for (List<Integer> positions : positionsByRoom.values()) {
+				@SuppressWarnings("unchecked")
+				List<Double> scores = (List<Double>) results.get(roomIndex++);
+				for (int j = 0; j < positions.size(); j++) {
+					Double score = scores != null ? scores.get(j) : null;
+					if (score != null && score >= threshold) {
+						active.set(positions.get(j));
+					}
+				}
+			}
+			return active;
+		} catch (Exception e) {
+			log.error("사용자 활성 상태 일괄 확인 실패 - Count: {}, Error: {}",
+				memberIds.size(), e.getMessage(), e);
+			// 확인 실패 시 기본적으로 비활성으로 처리 (알림 발송)
+			return active;
+		}
+	}
+
+	private String roomKey(Long roomId) {
+		return String.format(ROOM_PRESENCE_KEY, roomId);
+	}
+
+	private String roomSessionsKey(Long roomId) {
+		return String.format(ROOM_SESSIONS_KEY, roomId);
+	}
+
+	private String sessionMember(Long memberId, String sessionId) {
+		return memberId + ":" + sessionId;
+	}
+
+	/**
+	 * 이메일로 멤버 ID를 캐시 또는 DB에서 조회
+	 *
+	 * @throws CatxiException 멤버가 존재하지 않을 경우
+	 */
+	private Long resolveMemberId(String email) {
+		String cacheKey = String.format(MEMBER_CACHE_KEY_PREFIX, email);
+
+		String cachedMemberId = redisTemplate.opsForValue().get(cacheKey);
+		if (cachedMemberId != null) {
+			try {
+				return Long.parseLong(cachedMemberId);
+			} catch (NumberFormatException e) {
+				log.warn("캐시된 멤버 ID 파싱 실패 - Email: {}, CachedValue: {}", email, cachedMemberId);
+			}
+		}
+
+		Member member = memberRepository.findByEmail(email)
+			.orElseThrow(() -> new CatxiException(MemberErrorCode.MEMBER_NOT_FOUND));
+		redisTemplate.opsForValue().set(cacheKey, member.getId().toString(),
+			MEMBER_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+		return member.getId();
+	}
+
+	private static final class PresenceSession {
+		private final String email;
+		private volatile Long memberId;
+		private volatile Long roomId;
+		private volatile long lastRefreshedAt;
+
+		private PresenceSession(String email) {
+			this.email = email;
+		}
+	}
+}
@@ -26,6 +26,7 @@ public enum MemberErrorCode implements ErrorCode{
 	TOKEN_BLACKLISTED(HttpStatus.UNAUTHORIZED, "ACCESS408", "블랙리스트에 등록된 토큰입니다."),
 	USER_BLACKLISTED(HttpStatus.FORBIDDEN, "ACCESS409", "블랙리스트에 등록된 사용자입니다."),
 	TOKEN_CLAIM_INVALID(HttpStatus.UNAUTHORIZED, "ACCESS410", "토큰 클레임 정보가 유효하지 않습니다."),
+	REFRESH_TOKEN_REUSED(HttpStatus.UNAUTHORIZED, "ACCESS411", "이미 사용된 리프레시 토큰입니다. 다시 로그인해주세요."),
 
   MATCH_NOT_FOUND(HttpStatus.NOT_FOUND,"MATCH404","이용내역을 찾을 수 없습니다.");
 
@@ -1,34 +1,89 @@
 package com.project.catxi.common.auth.infra;
 
-import java.time.Instant;
+import com.project.catxi.common.jwt.TokenHasher;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
+/**
+ * 인가 코드(Authorization Code) 재사용 차단
+ * - 1차: 서버 로컬 맵 + 만료 순 DelayQueue (만료된 앞부분만 꺼내 정리 → 로그인당 O(1))
+ * - 2차: Redis SET NX EX (auth:code:{sha256(code)}) 로 다른 서버에 들어온 중복 요청까지 차단
+ */
+@Slf4j
 @Component
 public class CodeCache {
-  // 인증 코드와 만료시간을 저장
-  private final Map<String, Instant> usedCodes = new ConcurrentHashMap<>();
+  private static final String KEY_PREFIX = "auth:code:";
   // 인증 코드(Authroization)
   private static final long CODE_LIFETIME_SECONDS = 300; // 5분
 
-  // 코드 중복 사용 여부 확인
-  public boolean isDuplicate(String code) {
-    cleanupExpiredCodes();
-    return usedCodes.containsKey(code);
+  private final RedisTemplate<String, String> tokenRedisTemplate;
+  // 인증 코드와 만료시간(ms)을 저장
+  private final Map<String, Long> usedCodes = new ConcurrentHashMap<>();
+  private final DelayQueue<Expiry> expiryQueue = new DelayQueue<>();
+
+  public CodeCache(@Qualifier("tokenRedisTemplate") RedisTemplate<String, String> tokenRedisTemplate) {
+    this.tokenRedisTemplate = tokenRedisTemplate;
   }
 
-  public void register(String code) {
-    usedCodes.put(code, Instant.now().plusSeconds(CODE_LIFETIME_SECONDS));
+  /**
+   * 코드 사용 등록 (확인 + 등록을 원자적으로 처리)
+   * @return 처음 사용되는 코드면 true, 중복이면 false
+   */
+  public boolean tryAcquire(String code) {
+    cleanupExpiredCodes();
+
+    long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(CODE_LIFETIME_SECONDS);
+    if (usedCodes.putIfAbsent(code, expiresAt) != null) {
+      return false;
+    }
+    expiryQueue.put(new Expiry(code, expiresAt));
+
+    try {
+      Boolean acquired = tokenRedisTemplate.opsForValue()
+          .setIfAbsent(KEY_PREFIX + TokenHasher.hash(code), "1", CODE_LIFETIME_SECONDS, TimeUnit.SECONDS);
+      return Boolean.TRUE.equals(acquired);
+    } catch (Exception e) {
+      // Redis 장애 시 로컬 차단만 적용
+      log.warn("인가 코드 중복 확인 Redis 호출 실패 - 로컬 확인만 적용", e);
+      return true;
+    }
   }
 
+  // 로그인 실패 시 같은 코드로 재시도할 수 있도록 해제
   public void remove(String code) {
     usedCodes.remove(code);
+    try {
+      tokenRedisTemplate.delete(KEY_PREFIX + TokenHasher.hash(code));
+    } catch (Exception e) {
+      log.warn("인가 코드 해제 Redis 호출 실패 - 만료 시까지 재사용 불가", e);
+    }
   }
 
-  // 만료된 코드 정리
+  // 만료된 코드 정리 (만료 시각 순으로 꺼내므로 만료된 항목만 확인)
   private void cleanupExpiredCodes() {
-    Instant now = Instant.now();
-    usedCodes.entrySet().removeIf(entry -> entry.getValue().isBefore(now));
+    Expiry expired;
+    while ((expired = expiryQueue.poll()) != null) {
+      usedCodes.remove(expired.code(), expired.expiresAt());
+    }
+  }
+
+  private record Expiry(String code, long expiresAt) implements Delayed {
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(expiresAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return Long.compare(expiresAt, ((Expiry) other).expiresAt);
+    }
   }
 }
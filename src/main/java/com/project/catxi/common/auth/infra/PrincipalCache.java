@@ -0,0 +1,156 @@
+package com.project.catxi.common.auth.infra;
+
+import com.project.catxi.member.dto.CustomUserDetails;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * JWT 필터용 인증 주체 로컬 캐시 (토큰 해시(TokenHasher) -> CustomUserDetails)
+ * - 캐시 적중 시 서명 검증, 블랙리스트 조회, 회원 조회를 모두 건너뜀
+ * - 항목 만료 = min(저장 후 ttl, 토큰 만료)
+ * - 토큰/사용자 블랙리스트 등록, 회원 비활성화 시 Redis pub/sub 으로 모든 서버에서 무효화
+ */
+@Slf4j
+@Component
+public class PrincipalCache implements MessageListener {
+
+  public static final String INVALIDATION_CHANNEL = "auth:principal:invalidate";
+  private static final String TOKEN_PREFIX = "token:";
+  private static final String MEMBER_PREFIX = "member:";
+
+  private final @Qualifier("chatPubSub") StringRedisTemplate redisTemplate;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  // 무효화 세대 - 조회 도중 무효화가 일어나면 그 결과는 캐시하지 않음
+  private final AtomicLong generation = new AtomicLong();
+
+  private final long ttlMs;
+  private final int maxSize;
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private final MeterRegistry meterRegistry;
+
+  public PrincipalCache(
+      @Qualifier("chatPubSub") StringRedisTemplate redisTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${auth.principal-cache.ttl-ms:30000}") long ttlMs,
+      @Value("${auth.principal-cache.max-size:10000}") int maxSize) {
+    this.redisTemplate = redisTemplate;
+    this.meterRegistry = meterRegistry;
+    this.ttlMs = ttlMs;
+    this.maxSize = maxSize;
+
+    this.hitCounter = Counter.builder("auth.principal_cache.requests")
+        .description("JWT 필터 인증 주체 캐시 조회")
+        .tag("result", "hit")
+        .register(meterRegistry);
+    this.missCounter = Counter.builder("auth.principal_cache.requests")
+        .description("JWT 필터 인증 주체 캐시 조회")
+        .tag("result", "miss")
+        .register(meterRegistry);
+    Gauge.builder("auth.principal_cache.size", entries, Map::size)
+        .description("인증 주체 캐시 항목 수")
+        .register(meterRegistry);
+  }
+
+  public CustomUserDetails get(String tokenHash) {
+    Entry entry = entries.get(tokenHash);
+    if (entry == null) {
+      missCounter.increment();
+      return null;
+    }
+    if (entry.expiresAt() <= System.currentTimeMillis()) {
+      entries.remove(tokenHash, entry);
+      missCounter.increment();
+      return null;
+    }
+    hitCounter.increment();
+    return entry.userDetails();
+  }
+
+  /**
+   * 조회 시작 시점의 무효화 세대 (put 시 비교)
+   */
+  public long generation() {
+    return generation.get();
+  }
+
+  public void put(long generationAtLoad, String tokenHash, Long memberId, CustomUserDetails userDetails,
+      long tokenExpiresAt) {
+    long expiresAt = Math.min(System.currentTimeMillis() + ttlMs, tokenExpiresAt);
+    if (expiresAt <= System.currentTimeMillis()) {
+      return;
+    }
+    if (entries.size() >= maxSize) {
+      purgeExpired();
+      if (entries.size() >= maxSize) {
+        return; // 가득 차면 캐시하지 않고 매번 검증
+      }
+    }
+    entries.put(tokenHash, new Entry(memberId, userDetails, expiresAt));
+    // 조회 도중 무효화가 들어왔다면 방금 넣은 항목은 오래된 결과일 수 있으므로 제거
+    if (generation.get() != generationAtLoad) {
+      entries.remove(tokenHash);
+    }
+  }
+
+  /**
+   * 커밋 후 로컬 무효화 + 다른 서버로 전파 (트랜잭션 밖에서 발행된 경우 즉시 처리)
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void on(PrincipalInvalidatedEvent event) {
+    String message = event.tokenHash() != null
+        ? TOKEN_PREFIX + event.tokenHash()
+        : MEMBER_PREFIX + event.memberId();
+    apply(message);
+    try {
+      redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+    } catch (Exception e) {
+      // 전파 실패 시 다른 서버는 ttl 이 지나야 반영됨
+      log.warn("인증 주체 캐시 무효화 전파 실패 - {}", message, e);
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    apply(new String(message.getBody(), StandardCharsets.UTF_8));
+  }
+
+  private void apply(String message) {
+    generation.incrementAndGet();
+    if (message.startsWith(TOKEN_PREFIX)) {
+      entries.remove(message.substring(TOKEN_PREFIX.length()));
+      meterRegistry.counter("auth.principal_cache.invalidations", "scope", "token").increment();
+    } else if (message.startsWith(MEMBER_PREFIX)) {
+      Long memberId = Long.valueOf(message.substring(MEMBER_PREFIX.length()));
+      entries.values().removeIf(entry -> memberId.equals(entry.memberId()));
+      meterRegistry.counter("auth.principal_cache.invalidations", "scope", "member").increment();
+    } else {
+      log.warn("알 수 없는 인증 주체 캐시 무효화 메시지: {}", message);
+    }
+  }
+
+  // 만료 항목 정리
+  @Scheduled(fixedDelayString = "${auth.principal-cache.purge-interval-ms:60000}")
+  public void purgeExpired() {
+    long now = System.currentTimeMillis();
+    entries.values().removeIf(entry -> entry.expiresAt() <= now);
+  }
+
+  private record Entry(Long memberId, CustomUserDetails userDetails, long expiresAt) {}
+}
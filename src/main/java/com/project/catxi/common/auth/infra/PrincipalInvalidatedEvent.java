@@ -0,0 +1,18 @@
+package com.project.catxi.common.auth.infra;
+
+import com.project.catxi.common.jwt.TokenHasher;
+
+/**
+ * 인증 주체 캐시 무효화 요청 (커밋 후 로컬 무효화 + 다른 서버로 전파)
+ * tokenHash 또는 memberId 중 하나만 지정
+ */
+public record PrincipalInvalidatedEvent(String tokenHash, Long memberId) {
+
+  public static PrincipalInvalidatedEvent ofToken(String accessToken) {
+    return new PrincipalInvalidatedEvent(TokenHasher.hash(accessToken), null);
+  }
+
+  public static PrincipalInvalidatedEvent ofMember(Long memberId) {
+    return new PrincipalInvalidatedEvent(null, memberId);
+  }
+}
@@ -0,0 +1,182 @@
+package com.project.catxi.common.auth.infra;
+
+import com.project.catxi.common.auth.kakao.TokenDTO;
+import com.project.catxi.common.jwt.TokenHasher;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 무중단 토큰 재발급 single-flight
+ * 같은 (email, RefreshToken) 으로 동시에 들어온 재발급은 회전 한 번의 결과를 함께 사용
+ * - 서버 내부: 진행 중인 회전(CompletableFuture)에 합류
+ * - 서버 간: 짧은 Redis 락 + 결과 키 (auth:refresh:flight:{hash}) 를 유예 시간 동안 공유
+ * - 유예 시간 안에 늦게 도착한 요청도 이전 토큰으로 같은 결과를 받음 (회전/재사용 탐지 대상 아님)
+ */
+@Slf4j
+@Component
+public class RefreshSingleFlight {
+
+  private static final String LOCK_PREFIX = "auth:refresh:lock:";
+  private static final String RESULT_PREFIX = "auth:refresh:flight:";
+  private static final String SEPARATOR = " ";
+  private static final long POLL_INTERVAL_MS = 25;
+
+  private static final String RELEASE_LOCK_SCRIPT =
+      "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+      "return redis.call('DEL', KEYS[1]) " +
+      "end " +
+      "return 0";
+
+  private final RedisTemplate<String, String> tokenRedisTemplate;
+  private final MeterRegistry meterRegistry;
+  private final DefaultRedisScript<Long> releaseLockScript = new DefaultRedisScript<>(RELEASE_LOCK_SCRIPT, Long.class);
+
+  private final Map<String, CompletableFuture<TokenDTO.Response>> inFlight = new ConcurrentHashMap<>();
+  private final Map<String, Recent> recent = new ConcurrentHashMap<>();
+
+  private final long lockTtlMs;
+  private final long graceMs;
+
+  public RefreshSingleFlight(
+      @Qualifier("tokenRedisTemplate") RedisTemplate<String, String> tokenRedisTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${auth.refresh.single-flight.lock-ttl-ms:3000}") long lockTtlMs,
+      @Value("${auth.refresh.single-flight.grace-ms:10000}") long graceMs) {
+    this.tokenRedisTemplate = tokenRedisTemplate;
+    this.meterRegistry = meterRegistry;
+    this.lockTtlMs = lockTtlMs;
+    this.graceMs = graceMs;
+  }
+
+  /**
+   * @param rotation 실제 회전 (실패 시 null 반환)
+   * @return 새 토큰 쌍, 실패 시 null
+   */
+  public TokenDTO.Response execute(String email, String refreshToken, Supplier<TokenDTO.Response> rotation) {
+    String tokenHash = TokenHasher.hash(refreshToken);
+    String key = email + ":" + tokenHash;
+
+    Recent cached = recent.get(key);
+    if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+      record("local_shared");
+      return cached.tokens();
+    }
+
+    CompletableFuture<TokenDTO.Response> flight = new CompletableFuture<>();
+    CompletableFuture<TokenDTO.Response> existing = inFlight.putIfAbsent(key, flight);
+    if (existing != null) {
+      record("local_shared");
+      try {
+        return existing.get(lockTtlMs * 2, TimeUnit.MILLISECONDS);
+      } catch (Exception e) {
+        log.warn("진행 중인 토큰 재발급 대기 실패: {}", email);
+        return null;
+      }
+    }
+
+    try {
+      TokenDTO.Response tokens = executeDistributed(tokenHash, rotation);
+      if (tokens != null) {
+        recent.put(key, new Recent(tokens, System.currentTimeMillis() + graceMs));
+      }
+      flight.complete(tokens);
+      return tokens;
+    } catch (RuntimeException e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  private TokenDTO.Response executeDistributed(String tokenHash, Supplier<TokenDTO.Response> rotation) {
+    String lockKey = LOCK_PREFIX + tokenHash;
+    String resultKey = RESULT_PREFIX + tokenHash;
+    String owner = UUID.randomUUID().toString();
+
+    Boolean locked;
+    try {
+      TokenDTO.Response shared = decode(tokenRedisTemplate.opsForValue().get(resultKey));
+      if (shared != null) {
+        record("remote_shared");
+        return shared;
+      }
+      locked = tokenRedisTemplate.opsForValue().setIfAbsent(lockKey, owner, lockTtlMs, TimeUnit.MILLISECONDS);
+    } catch (Exception e) {
+      // Redis 장애 시 조정 없이 회전 (동시 요청은 회전 스크립트가 하나만 통과시킴)
+      log.warn("토큰 재발급 single-flight 락 획득 실패 - 단독 회전", e);
+      record("leader");
+      return rotation.get();
+    }
+
+    if (!Boolean.TRUE.equals(locked)) {
+      TokenDTO.Response shared = awaitRemote(resultKey);
+      record(shared != null ? "remote_shared" : "failed");
+      return shared;
+    }
+
+    try {
+      TokenDTO.Response tokens = rotation.get();
+      record(tokens != null ? "leader" : "failed");
+      if (tokens != null) {
+        tokenRedisTemplate.opsForValue().set(resultKey, tokens.accessToken() + SEPARATOR + tokens.refreshToken(),
+            graceMs, TimeUnit.MILLISECONDS);
+      }
+      return tokens;
+    } finally {
+      tokenRedisTemplate.execute(releaseLockScript, List.of(lockKey), owner);
+    }
+  }
+
+  // 다른 서버의 회전 결과 대기 (락 TTL 까지)
+  private TokenDTO.Response awaitRemote(String resultKey) {
+    long deadline = System.currentTimeMillis() + lockTtlMs;
+    while (System.currentTimeMillis() < deadline) {
+      TokenDTO.Response shared = decode(tokenRedisTemplate.opsForValue().get(resultKey));
+      if (shared != null) {
+        return shared;
+      }
+      try {
+        Thread.sleep(POLL_INTERVAL_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private TokenDTO.Response decode(String value) {
+    if (value == null) {
+      return null;
+    }
+    int separator = value.indexOf(SEPARATOR);
+    return new TokenDTO.Response(value.substring(0, separator), value.substring(separator + 1));
+  }
+
+  private void record(String result) {
+    meterRegistry.counter("auth.refresh.single_flight", "result", result).increment();
+  }
+
+  // 유예 시간 지난 결과 정리
+  @Scheduled(fixedDelayString = "${auth.refresh.single-flight.purge-interval-ms:30000}")
+  public void purgeExpired() {
+    long now = System.currentTimeMillis();
+    recent.values().removeIf(entry -> entry.expiresAt() <= now);
+  }
+
+  private record Recent(TokenDTO.Response tokens, long expiresAt) {}
+}
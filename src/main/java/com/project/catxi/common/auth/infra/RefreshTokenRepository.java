@@ -1,26 +1,178 @@
 package com.project.catxi.common.auth.infra;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Repository;
 
+/**
+ * RefreshToken 저장소
+ * - refresh:{email} -> 토큰
+ * - refresh:token:{sha1(토큰)} -> email (역인덱스, 토큰 값으로 O(1) 삭제)
+ * - refresh:family:{email} -> 토큰 패밀리 ID (로그인마다 새로 발급, 회전 시 유지)
+ * - refresh:used:{sha1(토큰)} -> "{패밀리 ID}:{회전 시각 ms}" (이미 회전된 토큰, 재사용 탐지용)
+ * 모든 변경은 Lua 스크립트 한 번으로 처리 (인덱스 해시는 스크립트 안에서 redis.sha1hex 로 계산)
+ */
+@Slf4j
 @Repository
 public class RefreshTokenRepository{
 
   private final RedisTemplate<String, String> tokenRedisTemplate;
 
-  public RefreshTokenRepository(@Qualifier("tokenRedisTemplate") RedisTemplate<String, String> tokenRedisTemplate) {
+  // 회전 직후 같은 토큰으로 들어온 동시 요청은 재사용으로 보지 않음
+  private final long reuseGraceMs;
+
+  public RefreshTokenRepository(@Qualifier("tokenRedisTemplate") RedisTemplate<String, String> tokenRedisTemplate,
+      @Value("${auth.refresh.reuse-grace-ms:2000}") long reuseGraceMs) {
     this.tokenRedisTemplate = tokenRedisTemplate;
+    this.reuseGraceMs = reuseGraceMs;
   }
 
   private static final String PREFIX = "refresh:";
+  private static final String INDEX_PREFIX = "refresh:token:";
+  private static final String FAMILY_PREFIX = "refresh:family:";
+  private static final String USED_PREFIX = "refresh:used:";
+  // 역인덱스 백필 1회 실행 마커 (값: running → done, 다시 돌리려면 키 삭제)
+  private static final String BACKFILL_MARKER_KEY = "migration:refresh-token-index:v1";
+  private static final long BACKFILL_LOCK_MINUTES = 30;
+
+  public enum RotationResult {
+    ROTATED,
+    MISMATCH,       // 저장된 토큰과 다름 (로그아웃/다른 로그인/동시 회전 유예 구간)
+    REUSE_DETECTED  // 이미 회전된 토큰 재사용 → 패밀리 폐기
+  }
+
+  /**
+   * 저장 - 새 패밀리 시작 (기존 토큰의 인덱스 제거)
+   * KEYS[1] = refresh:{email}, KEYS[2] = refresh:family:{email} / ARGV = 토큰, ttlMs, email, 인덱스 prefix, 패밀리 ID
+   */
+  private static final String SAVE_SCRIPT = """
+      local old = redis.call('GET', KEYS[1])
+      if old then
+        redis.call('DEL', ARGV[4] .. redis.sha1hex(old))
+      end
+      redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+      redis.call('SET', ARGV[4] .. redis.sha1hex(ARGV[1]), ARGV[3], 'PX', ARGV[2])
+      redis.call('SET', KEYS[2], ARGV[5], 'PX', ARGV[2])
+      return 1
+      """;
+
+  /**
+   * 이메일 키로 삭제 (패밀리 종료)
+   * KEYS[1] = refresh:{email}, KEYS[2] = refresh:family:{email} / ARGV = 인덱스 prefix
+   */
+  private static final String DELETE_SCRIPT = """
+      local old = redis.call('GET', KEYS[1])
+      if old then
+        redis.call('DEL', ARGV[1] .. redis.sha1hex(old))
+      end
+      redis.call('DEL', KEYS[2])
+      return redis.call('DEL', KEYS[1])
+      """;
+
+  /**
+   * 토큰 값으로 삭제 - 인덱스가 가리키는 키의 값이 같을 때만 삭제
+   * ARGV = 토큰, refresh prefix, 인덱스 prefix, 패밀리 prefix
+   */
+  private static final String DELETE_BY_TOKEN_SCRIPT = """
+      local indexKey = ARGV[3] .. redis.sha1hex(ARGV[1])
+      local email = redis.call('GET', indexKey)
+      redis.call('DEL', indexKey)
+      if not email then
+        return 0
+      end
+      local key = ARGV[2] .. email
+      if redis.call('GET', key) == ARGV[1] then
+        redis.call('DEL', key, ARGV[4] .. email)
+        return 1
+      end
+      return 0
+      """;
+
+  /**
+   * 회전 - 저장된 토큰이 oldToken 일 때만 교체 (compare-and-swap)
+   * 이미 회전된 토큰이 같은 패밀리에서 유예 시간 이후 다시 쓰이면 패밀리 전체 폐기
+   * KEYS[1] = refresh:{email}, KEYS[2] = refresh:family:{email}
+   * ARGV = oldToken, newToken, ttlMs, email, 인덱스 prefix, 사용됨 prefix, 새 패밀리 ID(패밀리 없을 때), 유예 ms
+   * 반환: 1 회전, 0 불일치, -1 재사용 탐지
+   */
+  private static final String ROTATE_SCRIPT = """
+      local t = redis.call('TIME')
+      local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+      local current = redis.call('GET', KEYS[1])
+      local family = redis.call('GET', KEYS[2])
+
+      if current ~= ARGV[1] then
+        local used = redis.call('GET', ARGV[6] .. redis.sha1hex(ARGV[1]))
+        if not used or not family then
+          return 0
+        end
+        local sep = string.find(used, ':', 1, true)
+        if string.sub(used, 1, sep - 1) ~= family then
+          return 0
+        end
+        if now - tonumber(string.sub(used, sep + 1)) <= tonumber(ARGV[8]) then
+          return 0
+        end
+        if current then
+          redis.call('DEL', ARGV[5] .. redis.sha1hex(current))
+        end
+        redis.call('DEL', KEYS[1], KEYS[2])
+        return -1
+      end
+
+      if not family then
+        family = ARGV[7]
+      end
+      redis.call('DEL', ARGV[5] .. redis.sha1hex(ARGV[1]))
+      redis.call('SET', ARGV[6] .. redis.sha1hex(ARGV[1]), family .. ':' .. now, 'PX', ARGV[3])
+      redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+      redis.call('SET', ARGV[5] .. redis.sha1hex(ARGV[2]), ARGV[4], 'PX', ARGV[3])
+      redis.call('SET', KEYS[2], family, 'PX', ARGV[3])
+      return 1
+      """;
+
+  /**
+   * 역인덱스 백필 (남은 TTL 유지)
+   * KEYS[1] = refresh:{email} / ARGV = email, 인덱스 prefix
+   */
+  private static final String BACKFILL_SCRIPT = """
+      local token = redis.call('GET', KEYS[1])
+      if not token then
+        return 0
+      end
+      local indexKey = ARGV[2] .. redis.sha1hex(token)
+      local ttl = redis.call('PTTL', KEYS[1])
+      if ttl > 0 then
+        redis.call('SET', indexKey, ARGV[1], 'PX', ttl)
+      else
+        redis.call('SET', indexKey, ARGV[1])
+      end
+      return 1
+      """;
+
+  private final DefaultRedisScript<Long> saveScript = new DefaultRedisScript<>(SAVE_SCRIPT, Long.class);
+  private final DefaultRedisScript<Long> deleteScript = new DefaultRedisScript<>(DELETE_SCRIPT, Long.class);
+  private final DefaultRedisScript<Long> deleteByTokenScript = new DefaultRedisScript<>(DELETE_BY_TOKEN_SCRIPT, Long.class);
+  private final DefaultRedisScript<Long> rotateScript = new DefaultRedisScript<>(ROTATE_SCRIPT, Long.class);
+  private final DefaultRedisScript<Long> backfillScript = new DefaultRedisScript<>(BACKFILL_SCRIPT, Long.class);
 
   //RefreshToken Redis 저장
 
   public void save(String key, String token, Duration ttl) {
-    tokenRedisTemplate.opsForValue().set(PREFIX + key, token, ttl);
+    tokenRedisTemplate.execute(saveScript, List.of(PREFIX + key, FAMILY_PREFIX + key),
+        token, String.valueOf(ttl.toMillis()), key, INDEX_PREFIX, newFamilyId());
   }
 
   //RefreshToken 조회
@@ -35,27 +187,79 @@ public class RefreshTokenRepository{
 
   // 토큰 삭제 (이메일 키로)
   public void delete(String key) {
-    tokenRedisTemplate.delete(PREFIX + key);
+    tokenRedisTemplate.execute(deleteScript, List.of(PREFIX + key, FAMILY_PREFIX + key), INDEX_PREFIX);
   }
 
-  // 토큰 삭제 (토큰 값으로)
+  // 토큰 삭제 (토큰 값으로, 역인덱스 조회)
   public void deleteByToken(String token) {
-    // Redis에서 모든 키를 순회하여 해당 토큰을 찾아 삭제
-    tokenRedisTemplate.keys(PREFIX + "*").forEach(key -> {
-      String storedToken = tokenRedisTemplate.opsForValue().get(key);
-      if (token.equals(storedToken)) {
-        tokenRedisTemplate.delete(key);
-      }
-    });
+    tokenRedisTemplate.execute(deleteByTokenScript, List.of(), token, PREFIX, INDEX_PREFIX, FAMILY_PREFIX);
   }
 
-  // 토큰 회전 (기존 토큰 삭제 후 새 토큰 저장)
-  public void rotate(String key, String oldToken, String newToken, Duration ttl) {
-    // 기존 토큰 검증 후 새 토큰으로 교체
-    if (isValid(key, oldToken)) {
-      delete(key);
-      save(key, newToken, ttl);
+  // 토큰 회전 (검증 + 교체를 한 번의 왕복으로 처리)
+  public RotationResult rotate(String key, String oldToken, String newToken, Duration ttl) {
+    Long result = tokenRedisTemplate.execute(rotateScript, List.of(PREFIX + key, FAMILY_PREFIX + key),
+        oldToken, newToken, String.valueOf(ttl.toMillis()), key, INDEX_PREFIX, USED_PREFIX,
+        newFamilyId(), String.valueOf(reuseGraceMs));
+    if (result == null || result == 0L) {
+      return RotationResult.MISMATCH;
     }
+    return result > 0 ? RotationResult.ROTATED : RotationResult.REUSE_DETECTED;
   }
 
+  // 기동 완료 후 백그라운드에서 백필 (기동 경로를 막지 않음)
+  @EventListener(ApplicationReadyEvent.class)
+  public void startIndexBackfill() {
+    Thread runner = new Thread(this::backfillIndex, "refresh-index-backfill");
+    runner.setDaemon(true);
+    runner.start();
+  }
+
+  /**
+   * 역인덱스 도입 전 저장된 토큰 백필 (SCAN 커서 기반, 이미 있으면 덮어써도 무방)
+   * 마커 키로 전체 서버에서 한 번만 실행 (실패 시 마커 삭제 → 다음 기동 때 재시도)
+   * 토큰 키만 대상 (email 에 '@' 포함 → refresh:token:/refresh:used: 는 SCAN 단계에서 제외)
+   */
+  public void backfillIndex() {
+    Boolean acquired;
+    try {
+      acquired = tokenRedisTemplate.opsForValue()
+          .setIfAbsent(BACKFILL_MARKER_KEY, "running", BACKFILL_LOCK_MINUTES, TimeUnit.MINUTES);
+    } catch (Exception e) {
+      log.warn("RefreshToken 역인덱스 백필 마커 확인 실패 - 다음 기동 때 재시도", e);
+      return;
+    }
+    if (!Boolean.TRUE.equals(acquired)) {
+      log.debug("RefreshToken 역인덱스 백필 생략 - 이미 완료 또는 다른 서버에서 진행 중");
+      return;
+    }
+
+    ScanOptions options = ScanOptions.scanOptions().match(PREFIX + "*@*").count(500).build();
+    int indexed = 0;
+    try (Cursor<String> cursor = tokenRedisTemplate.scan(options)) {
+      while (cursor.hasNext()) {
+        String key = cursor.next();
+        if (key.startsWith(INDEX_PREFIX) || key.startsWith(FAMILY_PREFIX) || key.startsWith(USED_PREFIX)) {
+          continue;
+        }
+        Long result = tokenRedisTemplate.execute(backfillScript, List.of(key),
+            key.substring(PREFIX.length()), INDEX_PREFIX);
+        if (result != null && result == 1L) {
+          indexed++;
+        }
+      }
+      tokenRedisTemplate.opsForValue().set(BACKFILL_MARKER_KEY, "done");
+      log.info("RefreshToken 역인덱스 백필 완료 - Count: {}", indexed);
+    } catch (Exception e) {
+      try {
+        tokenRedisTemplate.delete(BACKFILL_MARKER_KEY);
+      } catch (Exception ignored) {
+        // 마커는 잠금 TTL 후 만료되어 다음 기동 때 재시도
+      }
+      log.warn("RefreshToken 역인덱스 백필 실패 - 인덱스 없는 토큰은 만료 시까지 토큰 값으로 삭제되지 않음", e);
+    }
+  }
+
+  private static String newFamilyId() {
+    return UUID.randomUUID().toString();
+  }
 }
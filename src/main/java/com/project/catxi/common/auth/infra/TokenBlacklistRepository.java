@@ -1,44 +1,232 @@
 package com.project.catxi.common.auth.infra;
 
+import com.project.catxi.common.jwt.TokenHasher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
 
+/**
+ * AccessToken / User 블랙리스트
+ * - 토큰: ZSET blacklist:tokens (member = 토큰 SHA-256, score = 만료 시각 ms) 를 서버마다 메모리에 복제
+ *   추가는 pub/sub 으로 전파, 주기적으로 전체 재동기화 → 조회는 Bloom 필터 + 로컬 맵 (네트워크 호출 없음)
+ * - 사용자: blacklist:user:{id}
+ */
+@Slf4j
 @Repository
-public class TokenBlacklistRepository {
+public class TokenBlacklistRepository implements MessageListener {
+
+    public static final String TOKEN_ADDED_CHANNEL = "blacklist:token:added";
+    private static final String TOKEN_BLACKLIST_KEY = "blacklist:tokens";
+    private static final String LEGACY_TOKEN_BLACKLIST_PREFIX = "blacklist:token:";
+    private static final String USER_BLACKLIST_PREFIX = "blacklist:user:";
+    // 구버전 키 이관 1회 실행 마커 (값: running → done, 다시 돌리려면 키 삭제)
+    private static final String MIGRATION_MARKER_KEY = "migration:token-blacklist-zset:v1";
+    private static final long MIGRATION_LOCK_MINUTES = 30;
 
     private final RedisTemplate<String, String> tokenRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int bloomExpectedEntries;
+    private final double bloomFalsePositiveRate;
 
-    public TokenBlacklistRepository(@Qualifier("tokenRedisTemplate") RedisTemplate<String, String> tokenRedisTemplate) {
+    // 토큰 해시 -> 만료 시각 ms (블랙리스트는 추가/만료만 있고 해제는 없음)
+    private final Map<String, Long> blacklistedTokens = new ConcurrentHashMap<>();
+    private volatile TokenBloomFilter bloomFilter;
+
+    public TokenBlacklistRepository(
+            @Qualifier("tokenRedisTemplate") RedisTemplate<String, String> tokenRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${auth.blacklist.bloom-expected-entries:10000}") int bloomExpectedEntries,
+            @Value("${auth.blacklist.bloom-false-positive-rate:0.01}") double bloomFalsePositiveRate) {
         this.tokenRedisTemplate = tokenRedisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.bloomExpectedEntries = bloomExpectedEntries;
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+        this.bloomFilter = new TokenBloomFilter(bloomExpectedEntries, bloomFalsePositiveRate);
+
+        Gauge.builder("auth.blacklist.tokens", blacklistedTokens, Map::size)
+                .description("로컬에 복제된 블랙리스트 토큰 수")
+                .register(meterRegistry);
     }
 
-    private static final String TOKEN_BLACKLIST_PREFIX = "blacklist:token:";
-    private static final String USER_BLACKLIST_PREFIX = "blacklist:user:";
-    
-    // AccessToken을 블랙리스트에 추가 (TTL = 토큰 남은 유효기간)
+    // 최초 동기화 (ZSET 한 번 조회)
+    @PostConstruct
+    public void initialize() {
+        resyncTokens();
+    }
+
+    // 구버전 키(blacklist:token:{accessToken}) 이관은 기동 완료 후 백그라운드에서 (기동 경로를 막지 않음)
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLegacyMigration() {
+        Thread runner = new Thread(this::migrateLegacyTokens, "blacklist-legacy-migration");
+        runner.setDaemon(true);
+        runner.start();
+    }
+
+    // AccessToken을 블랙리스트에 추가 (만료 = 토큰 남은 유효기간)
     public void addTokenToBlacklist(String accessToken, Duration ttl) {
-        tokenRedisTemplate.opsForValue().set(TOKEN_BLACKLIST_PREFIX + accessToken, "true", ttl);
+        String tokenHash = TokenHasher.hash(accessToken);
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+
+        tokenRedisTemplate.opsForZSet().add(TOKEN_BLACKLIST_KEY, tokenHash, expiresAt);
+        addLocal(tokenHash, expiresAt);
+        tokenRedisTemplate.convertAndSend(TOKEN_ADDED_CHANNEL, tokenHash + ":" + expiresAt);
     }
-    
+
     // AccessToken 블랙리스트 존재 조회
     public boolean isTokenBlacklisted(String accessToken) {
-        return Boolean.TRUE.equals(tokenRedisTemplate.hasKey(TOKEN_BLACKLIST_PREFIX + accessToken));
+        return isTokenHashBlacklisted(TokenHasher.hash(accessToken));
+    }
+
+    // 토큰 해시로 블랙리스트 존재 조회 (Bloom 필터 → 로컬 맵, 네트워크 호출 없음)
+    public boolean isTokenHashBlacklisted(String tokenHash) {
+        if (!bloomFilter.mightContain(tokenHash)) {
+            meterRegistry.counter("auth.blacklist.checks", "result", "bloom_negative").increment();
+            return false;
+        }
+        Long expiresAt = blacklistedTokens.get(tokenHash);
+        boolean blacklisted = expiresAt != null && expiresAt > System.currentTimeMillis();
+        meterRegistry.counter("auth.blacklist.checks", "result", blacklisted ? "blacklisted" : "local_negative").increment();
+        return blacklisted;
+    }
+
+    /**
+     * 다른 서버에서 추가된 토큰 반영 (메시지: {tokenHash}:{expiresAt})
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator <= 0) {
+            log.warn("잘못된 블랙리스트 동기화 메시지: {}", body);
+            return;
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(body.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            log.warn("잘못된 블랙리스트 동기화 메시지: {}", body);
+            return;
+        }
+        addLocal(body.substring(0, separator), expiresAt);
+    }
+
+    /**
+     * Redis 기준 전체 재동기화 - pub/sub 유실 보정, 만료 항목 정리, Bloom 필터 재생성
+     * 해제가 없으므로 로컬에만 있는 미만료 항목도 유지 (동기화 도중 추가분 보존)
+     */
+    @Scheduled(fixedDelayString = "${auth.blacklist.resync-interval-ms:60000}")
+    public void resyncTokens() {
+        try {
+            long now = System.currentTimeMillis();
+            tokenRedisTemplate.opsForZSet().removeRangeByScore(TOKEN_BLACKLIST_KEY, Double.NEGATIVE_INFINITY, now);
+            Set<TypedTuple<String>> entries = tokenRedisTemplate.opsForZSet()
+                    .rangeByScoreWithScores(TOKEN_BLACKLIST_KEY, now, Double.POSITIVE_INFINITY);
+
+            if (entries != null) {
+                for (TypedTuple<String> entry : entries) {
+                    if (entry.getValue() != null && entry.getScore() != null) {
+                        blacklistedTokens.merge(entry.getValue(), entry.getScore().longValue(), Math::max);
+                    }
+                }
+            }
+            blacklistedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+
+            TokenBloomFilter rebuilt = new TokenBloomFilter(
+                    Math.max(bloomExpectedEntries, blacklistedTokens.size() * 2), bloomFalsePositiveRate);
+            blacklistedTokens.keySet().forEach(rebuilt::add);
+            bloomFilter = rebuilt;
+            // 교체 직후 들어온 추가분이 이전 필터에만 기록됐을 수 있으므로 한 번 더 반영
+            blacklistedTokens.keySet().forEach(rebuilt::add);
+
+            log.debug("토큰 블랙리스트 재동기화 완료 - Count: {}", blacklistedTokens.size());
+        } catch (Exception e) {
+            log.warn("토큰 블랙리스트 재동기화 실패 - 로컬 복제본 유지", e);
+        }
+    }
+
+    private void addLocal(String tokenHash, long expiresAt) {
+        blacklistedTokens.merge(tokenHash, expiresAt, Math::max);
+        bloomFilter.add(tokenHash);
+    }
+
+    /**
+     * 원문 토큰을 키로 쓰던 구버전 항목을 해시 ZSET 으로 이관 (남은 TTL 유지)
+     * 마커 키로 전체 서버에서 한 번만 실행 (실패 시 마커 삭제 → 다음 기동 때 재시도), 완료 후 로컬 복제본 재동기화
+     */
+    public void migrateLegacyTokens() {
+        Boolean acquired;
+        try {
+            acquired = tokenRedisTemplate.opsForValue()
+                    .setIfAbsent(MIGRATION_MARKER_KEY, "running", MIGRATION_LOCK_MINUTES, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.warn("구버전 토큰 블랙리스트 이관 마커 확인 실패 - 다음 기동 때 재시도", e);
+            return;
+        }
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.debug("구버전 토큰 블랙리스트 이관 생략 - 이미 완료 또는 다른 서버에서 진행 중");
+            return;
+        }
+
+        ScanOptions options = ScanOptions.scanOptions().match(LEGACY_TOKEN_BLACKLIST_PREFIX + "*").count(500).build();
+        int migrated = 0;
+        try (Cursor<String> cursor = tokenRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                Long ttlMs = tokenRedisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+                if (ttlMs != null && ttlMs > 0) {
+                    String accessToken = key.substring(LEGACY_TOKEN_BLACKLIST_PREFIX.length());
+                    tokenRedisTemplate.opsForZSet().add(TOKEN_BLACKLIST_KEY, TokenHasher.hash(accessToken),
+                            System.currentTimeMillis() + ttlMs);
+                }
+                tokenRedisTemplate.delete(key);
+                migrated++;
+            }
+            tokenRedisTemplate.opsForValue().set(MIGRATION_MARKER_KEY, "done");
+            log.info("구버전 토큰 블랙리스트 이관 완료 - Count: {}", migrated);
+        } catch (Exception e) {
+            try {
+                tokenRedisTemplate.delete(MIGRATION_MARKER_KEY);
+            } catch (Exception ignored) {
+                // 마커는 잠금 TTL 후 만료되어 다음 기동 때 재시도
+            }
+            log.warn("구버전 토큰 블랙리스트 이관 실패", e);
+        }
+        if (migrated > 0) {
+            resyncTokens();
+        }
     }
-    
+
     // User를 블랙리스트에 추가 (영구 또는 TTL 설정)
     public void addUserToBlacklist(String userId) {
         tokenRedisTemplate.opsForValue().set(USER_BLACKLIST_PREFIX + userId, "banned");
     }
-    
+
     // User 블랙리스트 존재 조회
     public boolean isUserBlacklisted(String userId) {
         return Boolean.TRUE.equals(tokenRedisTemplate.hasKey(USER_BLACKLIST_PREFIX + userId));
     }
-    
+
     // User 블랙리스트에서 제거
     public void removeUserFromBlacklist(String userId) {
         tokenRedisTemplate.delete(USER_BLACKLIST_PREFIX + userId);
     }
-}
\ No newline at end of file
+}
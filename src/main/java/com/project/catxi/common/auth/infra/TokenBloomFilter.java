@@ -0,0 +1,56 @@
+package com.project.catxi.common.auth.infra;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 토큰 해시 전용 Bloom 필터 (추가만 가능, 재동기화 때 새로 생성해 교체)
+ * 입력이 이미 SHA-256 이므로 해시 앞 16바이트를 두 개의 독립 해시로 사용 (double hashing)
+ */
+class TokenBloomFilter {
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  TokenBloomFilter(int expectedEntries, double falsePositiveRate) {
+    int n = Math.max(1, expectedEntries);
+    long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    this.bitCount = Math.max(64, m);
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+  }
+
+  void add(String tokenHash) {
+    long[] h = baseHashes(tokenHash);
+    for (int i = 0; i < hashCount; i++) {
+      long index = Math.floorMod(h[0] + i * h[1], bitCount);
+      int word = (int) (index >>> 6);
+      long mask = 1L << (index & 63);
+      long current;
+      do {
+        current = bits.get(word);
+        if ((current & mask) != 0) {
+          break;
+        }
+      } while (!bits.compareAndSet(word, current, current | mask));
+    }
+  }
+
+  boolean mightContain(String tokenHash) {
+    long[] h = baseHashes(tokenHash);
+    for (int i = 0; i < hashCount; i++) {
+      long index = Math.floorMod(h[0] + i * h[1], bitCount);
+      if ((bits.get((int) (index >>> 6)) & (1L << (index & 63))) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long[] baseHashes(String tokenHash) {
+    ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(tokenHash));
+    return new long[]{buffer.getLong(), buffer.getLong() | 1L};
+  }
+}
@@ -2,12 +2,14 @@ package com.project.catxi.common.auth.service;
 
 import com.project.catxi.common.api.error.MemberErrorCode;
 import com.project.catxi.common.api.exception.CatxiException;
+import com.project.catxi.common.auth.infra.PrincipalInvalidatedEvent;
 import com.project.catxi.common.auth.infra.RefreshTokenRepository;
 import com.project.catxi.common.auth.infra.TokenBlacklistRepository;
 import com.project.catxi.member.domain.Member;
 import com.project.catxi.member.repository.MemberRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +21,7 @@ public class BlacklistService {
     private final TokenBlacklistRepository tokenBlacklistRepository;
     private final RefreshTokenRepository refreshTokenRepository;
     private final MemberRepository memberRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     // 사용자를 블랙리스트에 추가 (영구)
     @Transactional
@@ -28,6 +31,7 @@ public class BlacklistService {
         
         // 사용자를 블랙리스트에 추가
         tokenBlacklistRepository.addUserToBlacklist(userId.toString());
+        applicationEventPublisher.publishEvent(PrincipalInvalidatedEvent.ofMember(userId));
         
         // 해당 사용자의 refreshToken을 Redis에서 삭제
         refreshTokenRepository.delete(member.getEmail());
@@ -33,8 +33,8 @@ public class OAuthLoginService {
 
     public Member kakaoLoginProcess(String accessCode, HttpServletResponse response) {
         
-        // 중복 코드 차단
-        if (codeCache.isDuplicate(accessCode)) {
+        // 중복 코드 차단 (다른 서버로 들어온 요청 포함)
+        if (!codeCache.tryAcquire(accessCode)) {
             log.warn("🚨중복 code 요청 차단 code = {}", accessCode);
             throw new CatxiException(MemberErrorCode.DUPLICATE_AUTHORIZE_CODE);
         }
@@ -3,7 +3,10 @@ package com.project.catxi.common.auth.service;
 import com.project.catxi.common.api.error.MemberErrorCode;
 import com.project.catxi.common.api.exception.CatxiException;
 import com.project.catxi.common.auth.infra.CookieUtil;
+import com.project.catxi.common.auth.infra.PrincipalInvalidatedEvent;
+import com.project.catxi.common.auth.infra.RefreshSingleFlight;
 import com.project.catxi.common.auth.infra.RefreshTokenRepository;
+import com.project.catxi.common.auth.infra.RefreshTokenRepository.RotationResult;
 import com.project.catxi.common.auth.infra.TokenBlacklistRepository;
 import com.project.catxi.common.auth.kakao.KakaoDTO;
 import com.project.catxi.common.auth.kakao.TokenDTO;
@@ -20,6 +23,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,7 +41,9 @@ public class TokenService {
     private final JwtTokenProvider jwtTokenProvider;
     private final MemberRepository memberRepository;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshSingleFlight refreshSingleFlight;
     private final TokenBlacklistRepository tokenBlacklistRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
     
     private static final String AUTH_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
@@ -53,12 +59,6 @@ public class TokenService {
         Claims claims = jwtUtil.parseJwt(refreshToken);
         String email = jwtUtil.getEmail(claims);
 
-        //레디스에 저장된 토큰 값 비교
-        if (!refreshTokenRepository.isValid(email, refreshToken)) {
-            refreshTokenRepository.delete(email);
-            throw new CatxiException(MemberErrorCode.REFRESH_TOKEN_MISMATCH);
-        }
-
         //사용자 정보 조회하여 role 가져오기
         Member member = memberRepository.findByEmail(email)
             .orElseThrow(() -> new CatxiException(MemberErrorCode.MEMBER_NOT_FOUND));
@@ -67,8 +67,15 @@ public class TokenService {
         String newAccessToken = jwtTokenProvider.generateAccessToken(email, member.getRole());
         String newRefreshToken = jwtTokenProvider.generateRefreshToken(email, member.getRole());
 
-        //Token Rotate
-        refreshTokenRepository.rotate(email, refreshToken, newRefreshToken, Duration.ofDays(30));
+        //Token Rotate (저장된 토큰 비교 + 교체를 원자적으로 처리)
+        RotationResult rotation = refreshTokenRepository.rotate(email, refreshToken, newRefreshToken, Duration.ofDays(30));
+        if (rotation == RotationResult.REUSE_DETECTED) {
+            log.warn("🚨 RefreshToken 재사용 탐지 - 토큰 패밀리 폐기: {}", email);
+            throw new CatxiException(MemberErrorCode.REFRESH_TOKEN_REUSED);
+        }
+        if (rotation != RotationResult.ROTATED) {
+            throw new CatxiException(MemberErrorCode.REFRESH_TOKEN_MISMATCH);
+        }
 
         //RefreshToken 전송
         ResponseCookie refreshCookie = CookieUtil.createCookie(newRefreshToken, Duration.ofDays(30));
@@ -98,6 +105,7 @@ public class TokenService {
                     if (remainTime > 0) {
                         // 블랙리스트에 추가
                         tokenBlacklistRepository.addTokenToBlacklist(accessToken, Duration.ofMillis(remainTime));
+                        applicationEventPublisher.publishEvent(PrincipalInvalidatedEvent.ofToken(accessToken));
                         
                         // 해당 사용자의 모든 refreshToken도 삭제 (보안 강화)
                         String email = jwtUtil.getEmail(claims);
@@ -176,22 +184,19 @@ public class TokenService {
 
             //Refresh Token 추출 및 검증
             String refreshToken = extractCookie(request, REFRESH_COOKIE);
-            if (refreshToken == null || !jwtUtil.validateToken(refreshToken) || !refreshTokenRepository.isValid(email, refreshToken)) {
+            if (refreshToken == null || !jwtUtil.validateToken(refreshToken)) {
                 return null;
             }
 
-            Member member = memberRepository.findByEmail(email).orElse(null);
-            if (member == null) {
+            //동시 재발급은 회전 한 번의 결과를 공유
+            TokenDTO.Response tokens = refreshSingleFlight.execute(email, refreshToken,
+                () -> rotateSilently(email, refreshToken));
+            if (tokens == null) {
                 return null;
             }
+            String newAccessToken = tokens.accessToken();
 
-            //토큰 생성
-            String newAccessToken = jwtTokenProvider.generateAccessToken(email, member.getRole());
-            String newRefreshToken = jwtTokenProvider.generateRefreshToken(email, member.getRole());
-
-            //토큰 rotate
-            refreshTokenRepository.rotate(email, refreshToken, newRefreshToken, Duration.ofDays(30));
-            response.setHeader("Set-Cookie", CookieUtil.createCookie(newRefreshToken, Duration.ofDays(30)).toString());
+            response.setHeader("Set-Cookie", CookieUtil.createCookie(tokens.refreshToken(), Duration.ofDays(30)).toString());
             response.setHeader(AUTH_HEADER, BEARER_PREFIX + newAccessToken);
             response.setHeader(HEADER_REF, "true");
             exposeHeaders(response, AUTH_HEADER, HEADER_REF);
@@ -205,6 +210,27 @@ public class TokenService {
         }
     }
     
+    private TokenDTO.Response rotateSilently(String email, String refreshToken) {
+        Member member = memberRepository.findByEmail(email).orElse(null);
+        if (member == null) {
+            return null;
+        }
+
+        //토큰 생성
+        String newAccessToken = jwtTokenProvider.generateAccessToken(email, member.getRole());
+        String newRefreshToken = jwtTokenProvider.generateRefreshToken(email, member.getRole());
+
+        //토큰 rotate (저장된 토큰 비교 포함)
+        RotationResult rotation = refreshTokenRepository.rotate(email, refreshToken, newRefreshToken, Duration.ofDays(30));
+        if (rotation != RotationResult.ROTATED) {
+            if (rotation == RotationResult.REUSE_DETECTED) {
+                log.warn("🚨 RefreshToken 재사용 탐지 - 토큰 패밀리 폐기: {}", email);
+            }
+            return null;
+        }
+        return new TokenDTO.Response(newAccessToken, newRefreshToken);
+    }
+
     private String extractCookie(HttpServletRequest request, String name) {
         Cookie[] cookies = request.getCookies();
         if (cookies == null) return null;
@@ -14,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Slf4j
 @Configuration
@@ -76,6 +77,20 @@ public class FcmConfig {
         return FirebaseMessaging.getInstance(firebaseApp);
     }
     
+    // FCM 비동기 발송 완료 콜백 처리용 실행기
+    // TaskScheduler 가 아니어야 @Scheduled 작업이 commonTaskScheduler(유일한 TaskScheduler) 를 계속 사용함
+    @Bean("fcmDispatchExecutor")
+    public ThreadPoolTaskExecutor fcmDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setThreadNamePrefix("fcm-dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(5);
+        executor.initialize();
+        return executor;
+    }
+    
     @PreDestroy
     public void cleanup() {
         try {
@@ -19,6 +19,8 @@ import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import com.project.catxi.chat.service.RedisPubSubService;
+import com.project.catxi.common.auth.infra.PrincipalCache;
+import com.project.catxi.common.auth.infra.TokenBlacklistRepository;
 
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
@@ -88,6 +90,8 @@ public class RedisConfig {
     public RedisMessageListenerContainer redisMessageListenerContainer(
             @Qualifier("chatRedisConnectionFactory") RedisConnectionFactory cf,
             RedisPubSubService listener,
+            PrincipalCache principalCache,
+            TokenBlacklistRepository tokenBlacklistRepository,
             @Qualifier("commonTaskScheduler")ThreadPoolTaskScheduler redisPubSubScheduler
     ) {
 		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
@@ -102,6 +106,10 @@ public class RedisConfig {
 		container.addMessageListener(listener, new PatternTopic("kick:*"));
 		container.addMessageListener(listener, new PatternTopic("roomdeleted:*"));
         container.addMessageListener(listener, new PatternTopic("readyresult:*"));
+		// 인증 주체 캐시 무효화 (블랙리스트/회원 비활성화)
+		container.addMessageListener(principalCache, new ChannelTopic(PrincipalCache.INVALIDATION_CHANNEL));
+		// 토큰 블랙리스트 로컬 복제본 동기화
+		container.addMessageListener(tokenBlacklistRepository, new ChannelTopic(TokenBlacklistRepository.TOKEN_ADDED_CHANNEL));
 
 		// 종료 시 정리를 위해 리스트에 추가
 		listenerContainers.add(container);
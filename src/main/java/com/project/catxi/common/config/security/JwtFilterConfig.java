@@ -1,5 +1,6 @@
 package com.project.catxi.common.config.security;
 
+import com.project.catxi.common.auth.infra.PrincipalCache;
 import com.project.catxi.common.auth.infra.TokenBlacklistRepository;
 import com.project.catxi.common.auth.service.TokenService;
 import com.project.catxi.common.jwt.JwtFilter;
@@ -16,18 +17,21 @@ public class JwtFilterConfig {
   private final TokenService tokenService;
   private final MemberRepository memberRepository;
   private final TokenBlacklistRepository tokenBlacklistRepository;
+  private final PrincipalCache principalCache;
 
-  public JwtFilterConfig(JwtUtil jwtUtil, TokenService tokenService, MemberRepository memberRepository, TokenBlacklistRepository tokenBlacklistRepository) {
+  public JwtFilterConfig(JwtUtil jwtUtil, TokenService tokenService, MemberRepository memberRepository,
+      TokenBlacklistRepository tokenBlacklistRepository, PrincipalCache principalCache) {
     this.jwtUtil = jwtUtil;
     this.tokenService = tokenService;
     this.memberRepository = memberRepository;
     this.tokenBlacklistRepository = tokenBlacklistRepository;
+    this.principalCache = principalCache;
   }
 
   public void configureJwtFilters(HttpSecurity http) throws Exception {
     // JwtFilter - 토큰 검증 및 인증 객체 설정
     http.addFilterBefore(
-        new JwtFilter(jwtUtil, tokenService, memberRepository, tokenBlacklistRepository), UsernamePasswordAuthenticationFilter.class);
+        new JwtFilter(jwtUtil, tokenService, memberRepository, tokenBlacklistRepository, principalCache), UsernamePasswordAuthenticationFilter.class);
   }
 
 }
\ No newline at end of file
@@ -1,11 +1,16 @@
 package com.project.catxi.common.config.security;
 
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfigurationSource;
 
 @Configuration
@@ -14,10 +19,14 @@ public class SecurityConfig {
   
   private final JwtFilterConfig jwtFilterConfig;
   private final CorsConfigurationSource corsConfigurationSource;
+  // Prometheus 스크랩 허용 대역 (내부 네트워크)
+  private final List<IpAddressMatcher> scrapeAllowedAddresses;
   
-  public SecurityConfig(JwtFilterConfig jwtFilterConfig, CorsConfigurationSource corsConfigurationSource) {
+  public SecurityConfig(JwtFilterConfig jwtFilterConfig, CorsConfigurationSource corsConfigurationSource,
+      @Value("${monitoring.scrape.allowed-cidrs:127.0.0.1/32,::1/128}") List<String> scrapeAllowedCidrs) {
     this.jwtFilterConfig = jwtFilterConfig;
     this.corsConfigurationSource = corsConfigurationSource;
+    this.scrapeAllowedAddresses = scrapeAllowedCidrs.stream().map(IpAddressMatcher::new).toList();
   }
 
   @Bean
@@ -47,7 +56,11 @@ public class SecurityConfig {
             .requestMatchers("/connect/**").permitAll()
             .requestMatchers("/api/auth/login/kakao").permitAll()
             .requestMatchers("/api/auth/kakao/callback").permitAll()
-            .requestMatchers("/actuator/**").permitAll()
+            // Actuator - health 만 공개, prometheus 는 내부 스크래퍼만 (nginx 에서도 /actuator/ 차단)
+            .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+            .requestMatchers("/actuator/prometheus")
+                .access((authentication, context) -> new AuthorizationDecision(isScrapeAllowed(context.getRequest())))
+            .requestMatchers("/actuator/**").denyAll()
             //admin 권한 제어
             .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
@@ -63,4 +76,8 @@ public class SecurityConfig {
 
     return http.build();
   }
+
+  private boolean isScrapeAllowed(HttpServletRequest request) {
+    return scrapeAllowedAddresses.stream().anyMatch(matcher -> matcher.matches(request));
+  }
 }
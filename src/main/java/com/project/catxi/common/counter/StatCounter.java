@@ -0,0 +1,33 @@
+package com.project.catxi.common.counter;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 버퍼링 카운터 정의
+ * 증가분은 Redis에 모았다가 주기적으로 table.column 에 일괄 반영
+ */
+@Getter
+@RequiredArgsConstructor
+public enum StatCounter {
+
+	// 회원별 매칭 횟수
+	MEMBER_MATCH_COUNT("member_match_count", "member", "id", "match_count");
+
+	private final String key;
+	private final String table;
+	private final String idColumn;
+	private final String countColumn;
+
+	public String pendingKey() {
+		return "counter:" + key + ":pending";
+	}
+
+	public String flushingKey() {
+		return "counter:" + key + ":flushing";
+	}
+
+	public String lockKey() {
+		return "counter:" + key + ":lock";
+	}
+}
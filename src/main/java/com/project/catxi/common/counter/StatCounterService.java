@@ -0,0 +1,310 @@
+package com.project.catxi.common.counter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 버퍼링 카운터 서비스
+ * - 증가: Redis HINCRBY (행 잠금 없음)
+ * - 조회: DB 값 + 반영 대기 중인 증가분
+ * - 반영: 주기적으로 누적 증가분을 CASE 문 한 번으로 DB에 일괄 반영
+ *   flushing 해시마다 배치 ID 를 부여하고 같은 트랜잭션에서 stat_counter_flush 에 기록
+ *   → 커밋 후 flushing 키 삭제가 실패/지연돼도 같은 배치는 다시 반영되지 않고, 조회 시에도 제외
+ */
+@Slf4j
+@Service
+public class StatCounterService {
+
+	private static final int FLUSH_CHUNK_SIZE = 500;
+	private static final long FLUSH_LOCK_TTL_SECONDS = 60;
+	private static final int APPLIED_BATCH_CACHE_SIZE = 1000;
+	// flushing 해시 안의 배치 ID 필드 (회원 ID 필드와 겹치지 않음)
+	private static final String BATCH_FIELD = "_batch";
+
+	// flushing 키가 남아있으면(이전 반영 실패/삭제 실패) 같은 배치 ID 로 재시도, 없으면 pending -> flushing 으로 교체 후 배치 ID 부여
+	private static final String PREPARE_FLUSH_SCRIPT =
+		"if redis.call('EXISTS', KEYS[2]) == 1 then " +
+		"redis.call('HSETNX', KEYS[2], '" + BATCH_FIELD + "', ARGV[1]) " +
+		"return 1 " +
+		"end " +
+		"if redis.call('EXISTS', KEYS[1]) == 1 then " +
+		"redis.call('RENAME', KEYS[1], KEYS[2]) " +
+		"redis.call('HSET', KEYS[2], '" + BATCH_FIELD + "', ARGV[1]) " +
+		"return 1 " +
+		"end " +
+		"return 0";
+
+	private static final String RELEASE_LOCK_SCRIPT =
+		"if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+		"return redis.call('DEL', KEYS[1]) " +
+		"end " +
+		"return 0";
+
+	private final StringRedisTemplate redisTemplate;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+
+	private final DefaultRedisScript<Long> prepareFlushScript;
+	private final DefaultRedisScript<Long> releaseLockScript;
+
+	// DB 반영이 확인된 배치 ID (조회 시 flushing 증가분 제외 판단용)
+	private final Set<String> appliedBatches = ConcurrentHashMap.newKeySet();
+
+	public StatCounterService(
+		@Qualifier("chatPubSub") StringRedisTemplate redisTemplate,
+		JdbcTemplate jdbcTemplate,
+		PlatformTransactionManager transactionManager) {
+		this.redisTemplate = redisTemplate;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+		this.prepareFlushScript = new DefaultRedisScript<>(PREPARE_FLUSH_SCRIPT, Long.class);
+		this.releaseLockScript = new DefaultRedisScript<>(RELEASE_LOCK_SCRIPT, Long.class);
+	}
+
+	/**
+	 * 카운터 증가 - 트랜잭션 안에서 호출되면 커밋 이후에 반영
+	 */
+	public void increment(StatCounter counter, Long id, long delta) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					bufferIncrement(counter, id, delta);
+				}
+			});
+			return;
+		}
+		bufferIncrement(counter, id, delta);
+	}
+
+	// Redis 장애 시 DB 원자적 증가로 대체
+	private void bufferIncrement(StatCounter counter, Long id, long delta) {
+		try {
+			redisTemplate.opsForHash().increment(counter.pendingKey(), String.valueOf(id), delta);
+		} catch (Exception e) {
+			log.warn("카운터 버퍼링 실패, DB 직접 반영 - Counter: {}, Id: {}, Error: {}",
+				counter, id, e.getMessage());
+			jdbcTemplate.update(
+				"UPDATE " + counter.getTable() + " SET " + counter.getCountColumn() + " = "
+					+ counter.getCountColumn() + " + ? WHERE " + counter.getIdColumn() + " = ?",
+				delta, id);
+		}
+	}
+
+	/**
+	 * 단건 조회용 - DB 값에 반영 대기 중인 증가분 적용
+	 */
+	public int withPending(StatCounter counter, Long id, int persistedCount) {
+		return persistedCount + getPendingDeltas(counter, List.of(id)).getOrDefault(id, 0L).intValue();
+	}
+
+	/**
+	 * 반영 대기 중인 증가분 일괄 조회 (pending + flushing, 한 번의 파이프라인)
+	 * flushing 배치가 이미 DB에 커밋됐으면 flushing 증가분은 DB 값에 포함돼 있으므로 제외
+	 */
+	public Map<Long, Long> getPendingDeltas(StatCounter counter, Collection<Long> ids) {
+		Map<Long, Long> deltas = new HashMap<>();
+		if (ids.isEmpty()) {
+			return deltas;
+		}
+
+		List<Long> idList = ids.stream().distinct().toList();
+		List<Object> fields = idList.stream().map(id -> (Object) String.valueOf(id)).toList();
+
+		try {
+			List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+				@Override
+				@SuppressWarnings("unchecked")
+				public Object execute(RedisOperations operations) throws DataAccessException {
+					operations.opsForHash().multiGet(counter.pendingKey(), fields);
+					operations.opsForHash().multiGet(counter.flushingKey(), fields);
+					operations.opsForHash().get(counter.flushingKey(), BATCH_FIELD);
+					return null;
+				}
+			});
+
+			mergeDeltas(deltas, idList, (List<?>) results.get(0));
+			Object batchId = results.get(2);
+			if (batchId == null || !isBatchApplied(batchId.toString())) {
+				mergeDeltas(deltas, idList, (List<?>) results.get(1));
+			}
+		} catch (Exception e) {
+			// 조회 실패 시 DB 값만 사용
+			log.warn("카운터 증가분 조회 실패 - Counter: {}, Error: {}", counter, e.getMessage());
+		}
+		return deltas;
+	}
+
+	private void mergeDeltas(Map<Long, Long> deltas, List<Long> idList, List<?> values) {
+		for (int i = 0; i < idList.size(); i++) {
+			Object value = values.get(i);
+			if (value != null) {
+				deltas.merge(idList.get(i), Long.parseLong(value.toString()), Long::sum);
+			}
+		}
+	}
+
+	// 반영 확인된 배치만 캐시 (미반영은 곧 바뀌므로 매번 확인, flush 진행 중인 짧은 구간에만 발생)
+	private boolean isBatchApplied(String batchId) {
+		if (appliedBatches.contains(batchId)) {
+			return true;
+		}
+		if (isBatchRecorded(batchId)) {
+			rememberAppliedBatch(batchId);
+			return true;
+		}
+		return false;
+	}
+
+	private void rememberAppliedBatch(String batchId) {
+		if (appliedBatches.size() >= APPLIED_BATCH_CACHE_SIZE) {
+			appliedBatches.clear();
+		}
+		appliedBatches.add(batchId);
+	}
+
+	@Scheduled(fixedDelayString = "${stat-counter.flush-interval-ms:5000}")
+	public void flushAll() {
+		for (StatCounter counter : StatCounter.values()) {
+			try {
+				flush(counter);
+			} catch (Exception e) {
+				log.error("카운터 DB 반영 실패, 다음 주기에 재시도 - Counter: {}", counter, e);
+			}
+		}
+	}
+
+	/**
+	 * 누적 증가분 DB 반영 - 여러 서버 중 락을 잡은 한 곳에서만 수행
+	 */
+	public void flush(StatCounter counter) {
+		String owner = UUID.randomUUID().toString();
+		Boolean locked = redisTemplate.opsForValue()
+			.setIfAbsent(counter.lockKey(), owner, FLUSH_LOCK_TTL_SECONDS, TimeUnit.SECONDS);
+		if (!Boolean.TRUE.equals(locked)) {
+			return;
+		}
+
+		try {
+			Long prepared = redisTemplate.execute(prepareFlushScript,
+				List.of(counter.pendingKey(), counter.flushingKey()), UUID.randomUUID().toString());
+			if (prepared == null || prepared == 0L) {
+				return;
+			}
+
+			Map<Object, Object> entries = redisTemplate.opsForHash().entries(counter.flushingKey());
+			Object batchField = entries.remove(BATCH_FIELD);
+			if (batchField == null) {
+				return; // 준비와 조회 사이에 다른 곳에서 정리됨
+			}
+			String batchId = batchField.toString();
+			List<long[]> deltas = new ArrayList<>(entries.size());
+			entries.forEach((id, delta) -> {
+				long value = Long.parseLong(delta.toString());
+				if (value != 0) {
+					deltas.add(new long[] {Long.parseLong(id.toString()), value});
+				}
+			});
+
+			// 배치 기록과 증가분 반영을 한 트랜잭션으로 - 이미 기록된 배치면 건너뜀 (PK 로 중복 반영 차단)
+			Boolean applied = transactionTemplate.execute(status -> {
+				if (isBatchRecorded(batchId)) {
+					return false;
+				}
+				jdbcTemplate.update(
+					"INSERT INTO stat_counter_flush (batch_id, counter_key, applied_at) VALUES (?, ?, NOW(6))",
+					batchId, counter.getKey());
+				for (int i = 0; i < deltas.size(); i += FLUSH_CHUNK_SIZE) {
+					applyDeltas(counter, deltas.subList(i, Math.min(i + FLUSH_CHUNK_SIZE, deltas.size())));
+				}
+				return true;
+			});
+			rememberAppliedBatch(batchId);
+
+			// 커밋 이후 삭제 - 실패 시 flushing 키가 남지만 같은 배치 ID 라 다시 반영되지 않음
+			redisTemplate.delete(counter.flushingKey());
+			if (Boolean.TRUE.equals(applied)) {
+				log.debug("카운터 DB 반영 완료 - Counter: {}, Batch: {}, Rows: {}", counter, batchId, deltas.size());
+			} else {
+				log.info("이미 반영된 카운터 배치 정리 - Counter: {}, Batch: {}", counter, batchId);
+			}
+
+		} finally {
+			redisTemplate.execute(releaseLockScript, List.of(counter.lockKey()), owner);
+		}
+	}
+
+	private boolean isBatchRecorded(String batchId) {
+		Integer count = jdbcTemplate.queryForObject(
+			"SELECT COUNT(*) FROM stat_counter_flush WHERE batch_id = ?", Integer.class, batchId);
+		return count != null && count > 0;
+	}
+
+	/**
+	 * 반영 기록 정리 - flushing 키는 다음 주기에 정리되므로 하루 지난 배치는 더 이상 참조되지 않음
+	 */
+	@Scheduled(fixedDelayString = "${stat-counter.batch-cleanup-interval-ms:3600000}")
+	public void cleanupAppliedBatches() {
+		try {
+			int deleted = jdbcTemplate.update(
+				"DELETE FROM stat_counter_flush WHERE applied_at < NOW(6) - INTERVAL 1 DAY");
+			if (deleted > 0) {
+				log.debug("카운터 배치 기록 정리 - Rows: {}", deleted);
+			}
+		} catch (Exception e) {
+			log.warn("카운터 배치 기록 정리 실패 - Error: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * UPDATE t SET c = c + CASE id WHEN ? THEN ? ... END WHERE id IN (...)
+	 */
+	private void applyDeltas(StatCounter counter, List<long[]> chunk) {
+		String idColumn = counter.getIdColumn();
+		String countColumn = counter.getCountColumn();
+
+		StringBuilder sql = new StringBuilder()
+			.append("UPDATE ").append(counter.getTable())
+			.append(" SET ").append(countColumn).append(" = ").append(countColumn)
+			.append(" + CASE ").append(idColumn);
+		List<Object> args = new ArrayList<>(chunk.size() * 3);
+
+		for (long[] delta : chunk) {
+			sql.append(" WHEN ? THEN ?");
+			args.add(delta[0]);
+			args.add(delta[1]);
+		}
+		sql.append(" ELSE 0 END WHERE ").append(idColumn).append(" IN (");
+		for (int i = 0; i < chunk.size(); i++) {
+			sql.append(i == 0 ? "?" : ", ?");
+			args.add(chunk.get(i)[0]);
+		}
+		sql.append(")");
+
+		jdbcTemplate.update(sql.toString(), args.toArray());
+	}
+}
@@ -2,6 +2,7 @@ package com.project.catxi.common.jwt;
 
 import com.project.catxi.common.api.error.MemberErrorCode;
 import com.project.catxi.common.api.handler.MemberHandler;
+import com.project.catxi.common.auth.infra.PrincipalCache;
 import com.project.catxi.common.auth.infra.TokenBlacklistRepository;
 import com.project.catxi.common.auth.service.TokenService;
 import com.project.catxi.common.domain.MemberStatus;
@@ -30,6 +31,7 @@ public class JwtFilter extends OncePerRequestFilter {
   private final TokenService tokenService;
   private final MemberRepository memberRepository;
   private final TokenBlacklistRepository tokenBlacklistRepository;
+  private final PrincipalCache principalCache;
 
   private static final String AUTH_HEADER = "Authorization";
   private static final String BEARER_PREFIX = "Bearer ";
@@ -61,6 +63,16 @@ public class JwtFilter extends OncePerRequestFilter {
     //토큰 추출 Prefix 제거
     String accessToken = authorization.substring(BEARER_PREFIX.length());
 
+    // 최근 검증된 토큰이면 서명 검증, 블랙리스트/회원 조회 생략
+    String tokenHash = TokenHasher.hash(accessToken);
+    CustomUserDetails cached = principalCache.get(tokenHash);
+    if (cached != null) {
+      setAuthentication(cached);
+      filterChain.doFilter(request, response);
+      return;
+    }
+    long cacheGeneration = principalCache.generation();
+
     //Claims 한 번에 전부 파싱
     Claims claims;
     try {
@@ -96,8 +108,8 @@ public class JwtFilter extends OncePerRequestFilter {
     }
 
     // accessToken 블랙리스트 여부 조회
-    if (tokenBlacklistRepository.isTokenBlacklisted(accessToken)) {
-      log.info("🚨 블랙리스트에 등록된 토큰: {}", accessToken);
+    if (tokenBlacklistRepository.isTokenHashBlacklisted(tokenHash)) {
+      log.info("🚨 블랙리스트에 등록된 토큰: {}", tokenHash);
       throw new MemberHandler(MemberErrorCode.ACCESS_FORBIDDEN);
     }
 
@@ -120,14 +132,20 @@ public class JwtFilter extends OncePerRequestFilter {
       throw new MemberHandler(MemberErrorCode.ACCESS_FORBIDDEN);
     }
 
-    // SecurityContext 설정 후 진행
-    setAuthentication(member);
+    // SecurityContext 설정 후 진행 (검증 결과 캐시)
+    CustomUserDetails customUserDetails = new CustomUserDetails(member);
+    principalCache.put(cacheGeneration, tokenHash, member.getId(), customUserDetails,
+        claims.getExpiration().getTime());
+    setAuthentication(customUserDetails);
     filterChain.doFilter(request, response);
   }
 
 
   private void setAuthentication(Member member) {
-    CustomUserDetails customUserDetails = new CustomUserDetails(member);
+    setAuthentication(new CustomUserDetails(member));
+  }
+
+  private void setAuthentication(CustomUserDetails customUserDetails) {
     Authentication authToken = new UsernamePasswordAuthenticationToken(
         customUserDetails, null, customUserDetails.getAuthorities());
     SecurityContextHolder.getContext().setAuthentication(authToken);
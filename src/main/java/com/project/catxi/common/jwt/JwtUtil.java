@@ -19,8 +19,10 @@ public class JwtUtil {
 
   private final SecretKey secretKey;
   private final JwtParser jwtParser;
+  private final VerifiedClaimsCache claimsCache;
 
-  public JwtUtil(JwtConfig jwtConfig) {
+  public JwtUtil(JwtConfig jwtConfig, VerifiedClaimsCache claimsCache) {
+    this.claimsCache = claimsCache;
     this.secretKey = Keys.hmacShaKeyFor(
         Base64.getDecoder().decode(jwtConfig.getSecret()));
     this.jwtParser = Jwts.parser()
@@ -32,8 +34,9 @@ public class JwtUtil {
   // 유효성 검사
   public boolean validateToken(String token) {
     if (token == null || token.trim().isEmpty()) return false;
+    if (claimsCache.get(token) != null) return true;
     try {
-      jwtParser.parseSignedClaims(token);
+      claimsCache.put(token, jwtParser.parseSignedClaims(token).getPayload());
       return true;
     } catch (JwtException | IllegalArgumentException e) {
       log.warn("JWT validation 오류: {}", e.getMessage());
@@ -41,10 +44,16 @@ public class JwtUtil {
     }
   }
 
-  // 파싱
+  // 파싱 (검증된 클레임 캐시 우선, 만료된 토큰은 파서가 ExpiredJwtException 발생)
   public Claims parseJwt(String token) throws ExpiredJwtException {
+    Claims cached = claimsCache.get(token);
+    if (cached != null) {
+      return cached;
+    }
     try {
-      return jwtParser.parseSignedClaims(token).getPayload();
+      Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+      claimsCache.put(token, claims);
+      return claims;
     } catch (ExpiredJwtException e) {
       // ExpiredJwtException 예외 X -> zeroDownRefresh 호출되도록
       throw e;
@@ -0,0 +1,93 @@
+package com.project.catxi.common.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 서명 검증이 끝난 JWT 클레임 캐시 (토큰 -> Claims)
+ * - 같은 토큰의 반복 요청은 HMAC 검증, Base64/JSON 파싱을 건너뜀
+ * - 키는 토큰 문자열 그대로 사용 (조회 시 추가 할당/해시 계산 없음, 요청이 이미 들고 있는 값)
+ * - 항목은 토큰 만료 시각까지만 유효, 크기 제한 초과 시 캐시하지 않음
+ * - 검증 실패/만료 토큰은 캐시하지 않음
+ */
+@Component
+public class VerifiedClaimsCache {
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final int maxSize;
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+
+  public VerifiedClaimsCache(
+      MeterRegistry meterRegistry,
+      @Value("${auth.claims-cache.max-size:20000}") int maxSize) {
+    this.maxSize = maxSize;
+
+    this.hitCounter = Counter.builder("auth.claims_cache.requests")
+        .description("JWT 검증 클레임 캐시 조회")
+        .tag("result", "hit")
+        .register(meterRegistry);
+    this.missCounter = Counter.builder("auth.claims_cache.requests")
+        .description("JWT 검증 클레임 캐시 조회")
+        .tag("result", "miss")
+        .register(meterRegistry);
+    Gauge.builder("auth.claims_cache.size", entries, Map::size)
+        .description("JWT 검증 클레임 캐시 항목 수")
+        .register(meterRegistry);
+  }
+
+  /**
+   * @return 만료 전 검증된 클레임, 없거나 만료됐으면 null (만료 예외는 파서가 다시 판단)
+   */
+  public Claims get(String token) {
+    if (token == null) {
+      return null;
+    }
+    Entry entry = entries.get(token);
+    if (entry == null) {
+      missCounter.increment();
+      return null;
+    }
+    if (entry.expiresAt() <= System.currentTimeMillis()) {
+      entries.remove(token, entry);
+      missCounter.increment();
+      return null;
+    }
+    hitCounter.increment();
+    return entry.claims();
+  }
+
+  public void put(String token, Claims claims) {
+    if (claims.getExpiration() == null) {
+      return;
+    }
+    long expiresAt = claims.getExpiration().getTime();
+    if (expiresAt <= System.currentTimeMillis()) {
+      return;
+    }
+    if (entries.size() >= maxSize) {
+      purgeExpired();
+      if (entries.size() >= maxSize) {
+        return; // 가득 차면 캐시하지 않고 매번 검증
+      }
+    }
+    entries.put(token, new Entry(claims, expiresAt));
+  }
+
+  // 만료 항목 정리
+  @Scheduled(fixedDelayString = "${auth.claims-cache.purge-interval-ms:60000}")
+  public void purgeExpired() {
+    long now = System.currentTimeMillis();
+    entries.values().removeIf(entry -> entry.expiresAt() <= now);
+  }
+
+  private record Entry(Claims claims, long expiresAt) {}
+}
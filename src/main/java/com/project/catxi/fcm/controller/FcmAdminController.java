@@ -0,0 +1,60 @@
+package com.project.catxi.fcm.controller;
+
+import com.project.catxi.common.api.ApiResponse;
+import com.project.catxi.fcm.dto.FcmDeadLetter;
+import com.project.catxi.fcm.service.FcmRetryQueueService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/fcm/dead-letters")
+@RequiredArgsConstructor
+public class FcmAdminController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final FcmRetryQueueService fcmRetryQueueService;
+
+    @Operation(summary = "FCM 데드레터 목록 조회", description = "재시도 한도를 넘은 알림 이벤트를 최신 순으로 조회합니다.")
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<FcmDeadLetter>>> getDeadLetters(
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int size) {
+
+        List<FcmDeadLetter> deadLetters = fcmRetryQueueService.getDeadLetters(
+                Math.max(offset, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        return ResponseEntity.ok(ApiResponse.success(deadLetters));
+    }
+
+    @Operation(summary = "FCM 데드레터 개수 조회")
+    @GetMapping("/count")
+    public ResponseEntity<ApiResponse<Long>> countDeadLetters() {
+        return ResponseEntity.ok(ApiResponse.success(fcmRetryQueueService.countDeadLetters()));
+    }
+
+    @Operation(summary = "FCM 데드레터 재처리", description = "오래된 항목부터 최대 limit개를 큐에 다시 넣습니다.")
+    @PostMapping("/replay")
+    public ResponseEntity<ApiResponse<Integer>> replayDeadLetters(
+            @RequestParam(defaultValue = "100") int limit) {
+
+        int replayed = fcmRetryQueueService.replayDeadLetters(Math.max(limit, 1));
+        return ResponseEntity.ok(ApiResponse.success(replayed));
+    }
+
+    @Operation(summary = "FCM 데드레터 단건 재처리")
+    @PostMapping("/{deadLetterId}/replay")
+    public ResponseEntity<ApiResponse<Void>> replayDeadLetter(@PathVariable String deadLetterId) {
+        fcmRetryQueueService.replayDeadLetter(deadLetterId);
+        return ResponseEntity.ok(ApiResponse.successWithNoData());
+    }
+
+    @Operation(summary = "FCM 데드레터 전체 삭제")
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Long>> purgeDeadLetters() {
+        return ResponseEntity.ok(ApiResponse.success(fcmRetryQueueService.purgeDeadLetters()));
+    }
+}
@@ -1,11 +1,12 @@
 package com.project.catxi.fcm.controller;
 
+import com.project.catxi.chat.service.PresenceService;
 import com.project.catxi.common.api.ApiResponse;
+import com.project.catxi.fcm.dto.FcmTokenDeleteReq;
 import com.project.catxi.fcm.dto.FcmTokenUpdateReq;
 import com.project.catxi.fcm.dto.FcmTokenUpdateRes;
 import com.project.catxi.fcm.dto.FcmActiveStatusReq;
 import com.project.catxi.fcm.service.FcmTokenService;
-import com.project.catxi.fcm.service.FcmActiveStatusService;
 import com.project.catxi.member.dto.CustomUserDetails;
 import com.project.catxi.member.repository.MemberRepository;
 import com.project.catxi.member.domain.Member;
@@ -23,7 +24,7 @@ import org.springframework.web.bind.annotation.*;
 public class FcmController {
 
     private final FcmTokenService fcmTokenService;
-    private final FcmActiveStatusService fcmActiveStatusService;
+    private final PresenceService presenceService;
     private final MemberRepository memberRepository;
 
     @PutMapping("/token")
@@ -45,20 +46,22 @@ public class FcmController {
             @Valid @RequestBody FcmActiveStatusReq request) {
         
         String email = userDetails.getUsername();
-        fcmActiveStatusService.updateUserActiveStatus(email, request.roomId(), request.isActive());
+        presenceService.updateActiveStatus(email, request.roomId(), request.isActive());
         
         return ResponseEntity.ok(ApiResponse.successWithNoData());
     }
 
+    // 로그아웃한 기기의 토큰만 삭제
     @DeleteMapping("/token")
     public ResponseEntity<ApiResponse<Void>> deleteFcmToken(
-            @AuthenticationPrincipal CustomUserDetails userDetails) {
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody FcmTokenDeleteReq request) {
         
         String email = userDetails.getUsername();
         Member member = memberRepository.findByEmail(email)
                 .orElseThrow(() -> new CatxiException(MemberErrorCode.MEMBER_NOT_FOUND));
         
-        fcmTokenService.deleteFcmToken(member);
+        fcmTokenService.deleteFcmToken(member, request);
         
         return ResponseEntity.ok(ApiResponse.successWithNoData());
     }
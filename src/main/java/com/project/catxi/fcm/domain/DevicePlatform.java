@@ -0,0 +1,5 @@
+package com.project.catxi.fcm.domain;
+
+public enum DevicePlatform {
+	ANDROID, IOS, WEB
+}
@@ -0,0 +1,76 @@
+package com.project.catxi.fcm.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 회원 기기별 FCM 토큰
+ * 토큰 원문은 TEXT 이므로 SHA-256 해시(token_hash) 유니크 인덱스로 조회/삭제
+ */
+@Entity
+@Table(name = "fcm_device_token",
+	uniqueConstraints = @UniqueConstraint(name = "uk_fcm_device_token_hash", columnNames = "token_hash"),
+	indexes = {
+		@Index(name = "idx_fcm_device_token_member", columnList = "member_id"),
+		@Index(name = "idx_fcm_device_token_last_seen", columnList = "last_seen")
+	})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class FcmDeviceToken {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "member_id", nullable = false)
+	private Long memberId;
+
+	@Column(name = "token_hash", nullable = false, length = 64, columnDefinition = "CHAR(64)")
+	private String tokenHash;
+
+	@Column(name = "token", nullable = false, columnDefinition = "TEXT")
+	private String token;
+
+	@Column(name = "platform", length = 20)
+	@Enumerated(EnumType.STRING)
+	private DevicePlatform platform;
+
+	//마지막 토큰 등록/갱신 시각 (오래된 토큰 정리 기준)
+	@Column(name = "last_seen", nullable = false)
+	private LocalDateTime lastSeen;
+
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+
+	public static FcmDeviceToken of(Long memberId, String token, String tokenHash, DevicePlatform platform) {
+		FcmDeviceToken deviceToken = new FcmDeviceToken();
+		deviceToken.memberId = memberId;
+		deviceToken.token = token;
+		deviceToken.tokenHash = tokenHash;
+		deviceToken.platform = platform;
+		deviceToken.createdAt = LocalDateTime.now();
+		deviceToken.lastSeen = deviceToken.createdAt;
+		return deviceToken;
+	}
+
+	// 같은 기기에서 다시 등록 (다른 계정으로 로그인한 경우 소유자 변경)
+	public void refresh(Long memberId, DevicePlatform platform) {
+		this.memberId = memberId;
+		if (platform != null) {
+			this.platform = platform;
+		}
+		this.lastSeen = LocalDateTime.now();
+	}
+}
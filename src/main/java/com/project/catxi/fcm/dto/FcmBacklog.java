@@ -0,0 +1,14 @@
+package com.project.catxi.fcm.dto;
+
+/**
+ * 전체 레인의 미전달 백로그 스냅샷 (컨슈머 오토스케일링 기준)
+ * - undelivered: 컨슈머 그룹이 아직 읽지 않은 이벤트 수 (pending 제외)
+ * - oldestAgeMs: 가장 오래된 미전달 이벤트의 대기 시간 (Redis 서버 시각 기준)
+ */
+public record FcmBacklog(
+    long undelivered,
+    long oldestAgeMs
+) {
+
+    public static final FcmBacklog EMPTY = new FcmBacklog(0, 0);
+}
@@ -0,0 +1,15 @@
+package com.project.catxi.fcm.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 재시도 한도를 넘어 보관된 FCM 이벤트
+ * payload는 FcmEventCodec으로 인코딩된 원본 이벤트 (디코딩 불가한 경우에도 그대로 보관)
+ */
+public record FcmDeadLetter(
+    String id,
+    String reason,
+    long attempts,
+    LocalDateTime failedAt,
+    String payload
+) {}
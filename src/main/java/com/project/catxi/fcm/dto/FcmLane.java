@@ -0,0 +1,49 @@
+package com.project.catxi.fcm.dto;
+
+import com.project.catxi.fcm.dto.FcmNotificationEvent.NotificationType;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * FCM 우선순위 레인
+ * - 레인별 스트림/재시도 큐를 분리해 채팅 폭주 중에도 시간 제한이 있는 알림이 먼저 처리되도록 함
+ * - weight: 배치당 레인별 읽기 비율, deadline: 생성 후 이 시간이 지나면 발송하지 않고 폐기
+ */
+@Getter
+@RequiredArgsConstructor
+public enum FcmLane {
+
+    // 준비요청 (TimerService 준비 타임아웃 20초)
+    CRITICAL("critical", "fcm:stream:critical", "fcm:retry:critical", 6, Duration.ofSeconds(20)),
+    // 채팅
+    NORMAL("normal", "fcm:stream", "fcm:retry", 3, Duration.ofMinutes(10)),
+    // 시스템 알림
+    BULK("bulk", "fcm:stream:bulk", "fcm:retry:bulk", 1, Duration.ofHours(1));
+
+    private final String tag;
+    private final String streamKey;
+    private final String retryKey;
+    private final int weight;
+    private final Duration deadline;
+
+    public static FcmLane of(NotificationType type) {
+        switch (type) {
+            case READY_REQUEST:
+                return CRITICAL;
+            case CHAT_MESSAGE:
+                return NORMAL;
+            default:
+                return BULK;
+        }
+    }
+
+    public static int totalWeight() {
+        int total = 0;
+        for (FcmLane lane : values()) {
+            total += lane.weight;
+        }
+        return total;
+    }
+}
@@ -1,76 +1,134 @@
 package com.project.catxi.fcm.dto;
 
-import com.fasterxml.jackson.annotation.JsonCreator;
-import com.fasterxml.jackson.annotation.JsonProperty;
-
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * 큐에 적재되는 FCM 알림 이벤트 (직렬화는 FcmEventCodec 참고)
+ * - 표시 문자열(title/body)은 보관하지 않고 발송 시점에 렌더링
+ * - businessKey는 인코딩하지 않고 디코딩 후 FcmBusinessKeyGenerator로 다시 생성
+ * - createdAt: epoch millis
+ */
 public record FcmNotificationEvent(
-    @JsonProperty("eventId") String eventId,
-    @JsonProperty("businessKey") String businessKey,
-    @JsonProperty("type") NotificationType type,
-    @JsonProperty("targetMemberIds") List<Long> targetMemberIds,
-    @JsonProperty("title") String title,
-    @JsonProperty("body") String body,
-    @JsonProperty("data") Map<String, String> data,
-    @JsonProperty("createdAt") LocalDateTime createdAt,
-    @JsonProperty("retryCount") int retryCount
+    long eventId,
+    String businessKey,
+    NotificationType type,
+    List<Long> targetMemberIds,
+    Long roomId,
+    Long messageId,
+    String senderNickname,
+    String message,
+    long createdAt,
+    int retryCount
 ) {
-    
-    // 단일 사용자용 정적 팩토리 메서드
-    public static FcmNotificationEvent createChatMessage(Long targetMemberId, Long roomId, Long messageId, String senderNickname, String message) {
-        String eventId = UUID.randomUUID().toString();
-        
+
+    // 채팅 메시지 1건당 이벤트 1개 (수신자 전체 포함)
+    public static FcmNotificationEvent createChatMessage(List<Long> targetMemberIds, Long roomId, Long messageId, String senderNickname, String message) {
         return new FcmNotificationEvent(
-                eventId,
+                newEventId(),
                 null, // businessKey는 Publisher에서 생성
                 NotificationType.CHAT_MESSAGE,
-                List.of(targetMemberId),
-                "새로운 채팅 메시지",
-                String.format("%s: %s", senderNickname, message),
-                Map.of("type", "CHAT", "roomId", String.valueOf(roomId), "messageId", String.valueOf(messageId)),
-                LocalDateTime.now(),
+                targetMemberIds,
+                roomId,
+                messageId,
+                senderNickname,
+                message,
+                System.currentTimeMillis(),
                 0
         );
     }
-    
-    // 다중 사용자용 정적 팩토리 메서드  
+
+    // 다중 사용자용 정적 팩토리 메서드
     public static FcmNotificationEvent createReadyRequest(List<Long> targetMemberIds, Long roomId) {
-        String eventId = UUID.randomUUID().toString();
-        
         return new FcmNotificationEvent(
-                eventId,
+                newEventId(),
                 null, // businessKey는 Publisher에서 생성
                 NotificationType.READY_REQUEST,
                 targetMemberIds,
-                "준비 요청",
-                "방장이 준비요청을 보냈습니다",
-                Map.of("type", "READY_REQUEST", "roomId", roomId.toString()),
-                LocalDateTime.now(),
+                roomId,
+                null,
+                null,
+                null,
+                System.currentTimeMillis(),
                 0
         );
     }
 
+    /**
+     * 63비트 임의 이벤트 ID (서버 간 조정 없이 충돌 확률 무시 가능)
+     */
+    public static long newEventId() {
+        return ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+    }
+
     public FcmNotificationEvent withBusinessKey(String businessKey) {
         return new FcmNotificationEvent(
             this.eventId,
             businessKey,
             this.type,
             this.targetMemberIds,
-            this.title,
-            this.body,
-            this.data,
+            this.roomId,
+            this.messageId,
+            this.senderNickname,
+            this.message,
+            this.createdAt,
+            this.retryCount
+        );
+    }
+
+    public FcmNotificationEvent withTargetMemberIds(List<Long> targetMemberIds) {
+        return new FcmNotificationEvent(
+            this.eventId,
+            this.businessKey,
+            this.type,
+            targetMemberIds,
+            this.roomId,
+            this.messageId,
+            this.senderNickname,
+            this.message,
             this.createdAt,
             this.retryCount
         );
     }
-    
+
+    public FcmNotificationEvent withRetryCount(int retryCount) {
+        return new FcmNotificationEvent(
+            this.eventId,
+            this.businessKey,
+            this.type,
+            this.targetMemberIds,
+            this.roomId,
+            this.messageId,
+            this.senderNickname,
+            this.message,
+            this.createdAt,
+            retryCount
+        );
+    }
+
     public enum NotificationType {
-        CHAT_MESSAGE,
-        READY_REQUEST,
-        SYSTEM_NOTIFICATION
+        CHAT_MESSAGE(1),
+        READY_REQUEST(2),
+        SYSTEM_NOTIFICATION(3);
+
+        // 인코딩용 고정 코드 (순서 변경과 무관하게 유지)
+        private final int code;
+
+        NotificationType(int code) {
+            this.code = code;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        public static NotificationType fromCode(int code) {
+            for (NotificationType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("알 수 없는 알림 타입 코드: " + code);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package com.project.catxi.fcm.dto;
+
+import java.time.Duration;
+
+/**
+ * 스트림에서 읽어온 FCM 이벤트 (ACK용 레코드 ID, 레인, 전달 횟수 포함)
+ */
+public record FcmQueuedEvent(
+    String recordId,
+    FcmLane lane,
+    FcmNotificationEvent event,
+    long deliveryCount
+) {
+
+    public boolean isRedelivery() {
+        return deliveryCount > 1;
+    }
+
+    /**
+     * 이벤트 생성 후 경과 시간 (큐 대기 지연)
+     */
+    public Duration age() {
+        if (event.createdAt() <= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(Math.max(0, System.currentTimeMillis() - event.createdAt()));
+    }
+
+    /**
+     * 레인 마감 시간 초과 여부
+     */
+    public boolean isExpired() {
+        return age().compareTo(lane.getDeadline()) > 0;
+    }
+}
@@ -0,0 +1,9 @@
+package com.project.catxi.fcm.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+// 로그아웃한 기기의 FCM 토큰 (해당 기기만 삭제)
+public record FcmTokenDeleteReq(
+    @NotBlank(message = "FCM 토큰은 필수입니다.")
+    String token
+) {}
@@ -1,8 +1,10 @@
 package com.project.catxi.fcm.dto;
 
+import com.project.catxi.fcm.domain.DevicePlatform;
 import jakarta.validation.constraints.NotBlank;
 
 public record FcmTokenUpdateReq(
     @NotBlank(message = "FCM 토큰은 필수입니다.")
-    String token
-) {}
\ No newline at end of file
+    String token,
+    DevicePlatform platform
+) {}
@@ -0,0 +1,106 @@
+package com.project.catxi.fcm.gateway;
+
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.SendResponse;
+import com.project.catxi.fcm.gateway.PushBatchResult.FailureType;
+import com.project.catxi.fcm.gateway.PushBatchResult.TokenResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "push", name = "gateway", havingValue = "firebase", matchIfMissing = true)
+public class FirebasePushGateway implements PushGateway {
+
+    private final FirebaseMessaging firebaseMessaging;
+
+    public FirebasePushGateway(@Autowired(required = false) FirebaseMessaging firebaseMessaging) {
+        this.firebaseMessaging = firebaseMessaging;
+
+        if (firebaseMessaging == null) {
+            log.warn("FirebaseMessaging이 주입되지 않았습니다. FCM 알림 기능이 비활성화됩니다.");
+        }
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return firebaseMessaging != null;
+    }
+
+    @Override
+    public CompletableFuture<PushBatchResult> sendMulticast(PushMessage message) {
+        CompletableFuture<PushBatchResult> result = new CompletableFuture<>();
+
+        MulticastMessage multicastMessage = MulticastMessage.builder()
+                .addAllTokens(message.tokens())
+                .putAllData(message.data())
+                .build();
+
+        try {
+            // 배치 전송 (한 번의 API 호출로 최대 500개 토큰 처리)
+            ApiFutures.addCallback(firebaseMessaging.sendEachForMulticastAsync(multicastMessage),
+                    new ApiFutureCallback<>() {
+                        @Override
+                        public void onSuccess(BatchResponse response) {
+                            result.complete(toResult(message.tokens(), response));
+                        }
+
+                        @Override
+                        public void onFailure(Throwable t) {
+                            boolean retryable = t instanceof FirebaseMessagingException e && isRetryableError(e);
+                            result.completeExceptionally(new PushGatewayException(t.getMessage(), retryable, t));
+                        }
+                    }, Runnable::run);
+        } catch (Exception e) {
+            result.completeExceptionally(new PushGatewayException(e.getMessage(), false, e));
+        }
+
+        return result;
+    }
+
+    private PushBatchResult toResult(List<String> tokens, BatchResponse response) {
+        List<SendResponse> responses = response.getResponses();
+        List<TokenResult> results = new ArrayList<>(responses.size());
+        for (int i = 0; i < responses.size(); i++) {
+            SendResponse sendResponse = responses.get(i);
+            String token = tokens.get(i);
+            if (sendResponse.isSuccessful()) {
+                results.add(TokenResult.ok(token));
+                continue;
+            }
+
+            FirebaseMessagingException exception = sendResponse.getException();
+            boolean invalid = exception != null &&
+                    (exception.getMessagingErrorCode() == MessagingErrorCode.UNREGISTERED ||
+                            exception.getMessagingErrorCode() == MessagingErrorCode.INVALID_ARGUMENT);
+            results.add(TokenResult.fail(token,
+                    invalid ? FailureType.INVALID_TOKEN : FailureType.OTHER,
+                    exception != null ? exception.getMessage() : "Unknown error"));
+        }
+        return new PushBatchResult(results);
+    }
+
+    /**
+     * 재시도 가능한 Firebase 오류인지 확인
+     */
+    private boolean isRetryableError(FirebaseMessagingException e) {
+        MessagingErrorCode errorCode = e.getMessagingErrorCode();
+        return errorCode == MessagingErrorCode.INTERNAL ||
+               errorCode == MessagingErrorCode.UNAVAILABLE ||
+               (e.getHttpResponse() != null &&
+                (e.getHttpResponse().getStatusCode() == 500 ||
+                 e.getHttpResponse().getStatusCode() == 503));
+    }
+}
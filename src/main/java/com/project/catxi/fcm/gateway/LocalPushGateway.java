@@ -0,0 +1,111 @@
+package com.project.catxi.fcm.gateway;
+
+import com.project.catxi.fcm.gateway.PushBatchResult.FailureType;
+import com.project.catxi.fcm.gateway.PushBatchResult.TokenResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 로컬 FCM 대역 - 실제 발송 없이 지연, 배치 오류, 토큰 오류를 흉내냄
+ * push.gateway=local 일 때만 등록 (부하 측정 및 파이프라인 튜닝용)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "push", name = "gateway", havingValue = "local")
+public class LocalPushGateway implements PushGateway {
+
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double batchErrorRate;
+    private final double invalidTokenRate;
+    private final double tokenErrorRate;
+
+    private final ScheduledExecutorService completer;
+    private final List<Consumer<PushMessage>> deliveryListeners = new CopyOnWriteArrayList<>();
+
+    public LocalPushGateway(
+            @Value("${push.local.latency-ms:50}") long latencyMs,
+            @Value("${push.local.latency-jitter-ms:30}") long latencyJitterMs,
+            @Value("${push.local.batch-error-rate:0.0}") double batchErrorRate,
+            @Value("${push.local.invalid-token-rate:0.0}") double invalidTokenRate,
+            @Value("${push.local.token-error-rate:0.0}") double tokenErrorRate) {
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.batchErrorRate = batchErrorRate;
+        this.invalidTokenRate = invalidTokenRate;
+        this.tokenErrorRate = tokenErrorRate;
+        this.completer = Executors.newScheduledThreadPool(2, r -> {
+            Thread t = new Thread(r, "local-push-gateway");
+            t.setDaemon(true);
+            return t;
+        });
+
+        log.warn("로컬 푸시 게이트웨이 사용 - 실제 FCM 발송 없음 (지연: {}±{}ms, 배치오류: {}, 무효토큰: {}, 토큰오류: {})",
+                latencyMs, latencyJitterMs, batchErrorRate, invalidTokenRate, tokenErrorRate);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<PushBatchResult> sendMulticast(PushMessage message) {
+        CompletableFuture<PushBatchResult> result = new CompletableFuture<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = Math.max(0, latencyMs + (latencyJitterMs > 0 ? random.nextLong(-latencyJitterMs, latencyJitterMs + 1) : 0));
+
+        completer.schedule(() -> {
+            ThreadLocalRandom r = ThreadLocalRandom.current();
+            if (r.nextDouble() < batchErrorRate) {
+                result.completeExceptionally(new PushGatewayException("로컬 게이트웨이 배치 오류 (모의)", true, null));
+                return;
+            }
+
+            List<TokenResult> results = new ArrayList<>(message.tokens().size());
+            for (String token : message.tokens()) {
+                double roll = r.nextDouble();
+                if (roll < invalidTokenRate) {
+                    results.add(TokenResult.fail(token, FailureType.INVALID_TOKEN, "UNREGISTERED (모의)"));
+                } else if (roll < invalidTokenRate + tokenErrorRate) {
+                    results.add(TokenResult.fail(token, FailureType.OTHER, "UNAVAILABLE (모의)"));
+                } else {
+                    results.add(TokenResult.ok(token));
+                }
+            }
+
+            PushBatchResult batchResult = new PushBatchResult(results);
+            if (batchResult.successCount() > 0) {
+                deliveryListeners.forEach(listener -> listener.accept(message));
+            }
+            result.complete(batchResult);
+        }, delay, TimeUnit.MILLISECONDS);
+
+        return result;
+    }
+
+    /**
+     * 발송 성공 시 호출될 리스너 등록 (벤치마크 측정용)
+     */
+    public void addDeliveryListener(Consumer<PushMessage> listener) {
+        deliveryListeners.add(listener);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        completer.shutdownNow();
+    }
+}
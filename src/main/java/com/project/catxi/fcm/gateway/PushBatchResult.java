@@ -0,0 +1,40 @@
+package com.project.catxi.fcm.gateway;
+
+import java.util.List;
+
+/**
+ * 멀티캐스트 발송 결과 (토큰 순서와 동일)
+ */
+public record PushBatchResult(
+    List<TokenResult> results
+) {
+
+    public int successCount() {
+        return (int) results.stream().filter(TokenResult::success).count();
+    }
+
+    public int failureCount() {
+        return results.size() - successCount();
+    }
+
+    public record TokenResult(
+        String token,
+        boolean success,
+        FailureType failureType,
+        String errorMessage
+    ) {
+
+        public static TokenResult ok(String token) {
+            return new TokenResult(token, true, null, null);
+        }
+
+        public static TokenResult fail(String token, FailureType failureType, String errorMessage) {
+            return new TokenResult(token, false, failureType, errorMessage);
+        }
+    }
+
+    public enum FailureType {
+        INVALID_TOKEN, // 등록 해제/형식 오류 - 토큰 삭제 대상
+        OTHER
+    }
+}
@@ -0,0 +1,22 @@
+package com.project.catxi.fcm.gateway;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 푸시 발송 게이트웨이
+ * - firebase: 실제 FCM 발송 (기본값)
+ * - local: 지연/오류율을 설정할 수 있는 로컬 대역 (부하 측정용)
+ */
+public interface PushGateway {
+
+    /**
+     * 발송 가능 여부 (firebase 자격 증명 미설정 시 false)
+     */
+    boolean isAvailable();
+
+    /**
+     * 멀티캐스트 비동기 발송
+     * 배치 전체 실패 시 {@link PushGatewayException}으로 완료
+     */
+    CompletableFuture<PushBatchResult> sendMulticast(PushMessage message);
+}
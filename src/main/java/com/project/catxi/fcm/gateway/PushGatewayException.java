@@ -0,0 +1,17 @@
+package com.project.catxi.fcm.gateway;
+
+import lombok.Getter;
+
+/**
+ * 배치 전체 발송 실패 (retryable이면 백오프 후 재전송)
+ */
+@Getter
+public class PushGatewayException extends RuntimeException {
+
+    private final boolean retryable;
+
+    public PushGatewayException(String message, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+}
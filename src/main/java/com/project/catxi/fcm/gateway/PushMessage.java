@@ -0,0 +1,9 @@
+package com.project.catxi.fcm.gateway;
+
+import java.util.List;
+import java.util.Map;
+
+public record PushMessage(
+    List<String> tokens,
+    Map<String, String> data
+) {}
@@ -0,0 +1,43 @@
+package com.project.catxi.fcm.repository;
+
+import com.project.catxi.fcm.domain.FcmDeviceToken;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FcmDeviceTokenRepository extends JpaRepository<FcmDeviceToken, Long> {
+
+  Optional<FcmDeviceToken> findByTokenHash(String tokenHash);
+
+  List<FcmDeviceToken> findAllByMemberId(Long memberId);
+
+  // 알림 대상 전체 기기 토큰 일괄 조회
+  List<FcmDeviceToken> findAllByMemberIdIn(Collection<Long> memberIds);
+
+  // 유효하지 않은 토큰 일괄 삭제 (해시 유니크 인덱스)
+  @Modifying(clearAutomatically = true)
+  @Query("DELETE FROM FcmDeviceToken t WHERE t.tokenHash IN :tokenHashes")
+  int deleteAllByTokenHashIn(@Param("tokenHashes") Collection<String> tokenHashes);
+
+  // 기기 로그아웃 - 본인 소유 토큰만 삭제
+  @Modifying(clearAutomatically = true)
+  @Query("DELETE FROM FcmDeviceToken t WHERE t.tokenHash = :tokenHash AND t.memberId = :memberId")
+  int deleteByTokenHashAndMemberId(@Param("tokenHash") String tokenHash, @Param("memberId") Long memberId);
+
+  // 회원 탈퇴 - 모든 기기 삭제
+  @Modifying(clearAutomatically = true)
+  @Query("DELETE FROM FcmDeviceToken t WHERE t.memberId = :memberId")
+  int deleteAllByMemberId(@Param("memberId") Long memberId);
+
+  // 오래된 토큰 ID 조회 (last_seen 인덱스, 청크 단위 정리용)
+  @Query("SELECT t.id FROM FcmDeviceToken t WHERE t.lastSeen < :cutoff ORDER BY t.lastSeen")
+  List<Long> findStaleIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
@@ -1,213 +1,270 @@
 package com.project.catxi.fcm.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalTime;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 
 /**
- * FCM 배치 크기 동적 최적화 서비스
- * 트래픽 패턴과 성능 메트릭을 기반으로 배치 크기를 자동 조정
+ * FCM 발송 적응형 제어기
+ * - 윈도우마다 실제 응답 지연 분포(HdrHistogram p50/p99)와 재시도성 오류를 보고
+ *   배치 크기와 동시 요청 수를 AIMD(가산 증가/승산 감소)로 조정
+ * - 혼잡 신호: p99가 목표를 넘거나 재시도 가능한 배치 오류(UNAVAILABLE/INTERNAL/5xx) 발생
+ * - 모든 상태는 Micrometer 게이지로 노출 (fcm.adaptive.*)
  */
 @Slf4j
 @Component
 public class FcmBatchOptimizer {
 
-    // 기본 설정
+    // 배치 크기 범위 (FCM 멀티캐스트 최대 500)
     private static final int MIN_BATCH_SIZE = 50;
     private static final int MAX_BATCH_SIZE = 500;
     private static final int DEFAULT_BATCH_SIZE = 200;
+    private static final int BATCH_SIZE_STEP = 25;
+    private static final double BATCH_SIZE_BACKOFF = 0.75;
 
-    // 동적 배치 크기
-    private final AtomicInteger currentBatchSize = new AtomicInteger(DEFAULT_BATCH_SIZE);
+    private static final int MIN_CONCURRENCY = 1;
+    private static final double CONCURRENCY_BACKOFF = 0.7;
+
+    // 윈도우 판단에 필요한 최소 배치 수
+    private static final int MIN_WINDOW_SAMPLES = 5;
+    private static final double TARGET_SUCCESS_RATE = 0.95;
+    private static final long MAX_TRACKABLE_LATENCY_MS = 60_000;
 
-    // 성능 메트릭
-    private final LongAdder totalRequests = new LongAdder();
-    private final LongAdder totalSuccesses = new LongAdder();
-    private final LongAdder totalFailures = new LongAdder();
-    private final AtomicLong totalLatency = new AtomicLong(0);
-    private final AtomicLong lastOptimizationTime = new AtomicLong(System.currentTimeMillis());
+    private final long windowMs;
+    private final long targetP99Ms;
+    private final int maxConcurrency;
+    private final long acquireTimeoutMs;
 
-    // 최적화 설정
-    private static final long OPTIMIZATION_INTERVAL_MS = 60000; // 1분마다 최적화
-    private static final double TARGET_SUCCESS_RATE = 0.95; // 목표 성공률 95%
-    private static final long TARGET_LATENCY_MS = 2000; // 목표 지연시간 2초
+    // 동적 배치 크기 / 동시 요청 한도
+    private final AtomicInteger currentBatchSize = new AtomicInteger(DEFAULT_BATCH_SIZE);
+    private final AtomicInteger concurrencyLimit;
+    private final ResizableSemaphore slots;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger windowPeakInFlight = new AtomicInteger();
+
+    // 윈도우 메트릭
+    private final Recorder latencyRecorder = new Recorder(MAX_TRACKABLE_LATENCY_MS, 2);
+    private Histogram intervalHistogram;
+    private final LongAdder windowSuccesses = new LongAdder();
+    private final LongAdder windowFailures = new LongAdder();
+    private final LongAdder windowRetryableErrors = new LongAdder();
+    private final AtomicLong lastWindowAt = new AtomicLong(System.currentTimeMillis());
+
+    // 직전 윈도우 결과 (게이지/로그용)
+    private volatile long lastP50Ms;
+    private volatile long lastP99Ms;
+    private volatile double lastSuccessRate = 1.0;
+
+    private final Counter congestionCounter;
+
+    public FcmBatchOptimizer(
+            MeterRegistry meterRegistry,
+            @Value("${fcm.adaptive.window-ms:10000}") long windowMs,
+            @Value("${fcm.adaptive.target-p99-ms:2000}") long targetP99Ms,
+            @Value("${fcm.dispatch.max-in-flight:16}") int maxConcurrency,
+            @Value("${fcm.dispatch.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        this.windowMs = windowMs;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.targetP99Ms = targetP99Ms;
+        this.maxConcurrency = Math.max(maxConcurrency, MIN_CONCURRENCY);
+
+        // 최대치의 절반에서 시작해 응답을 보며 확장
+        int initialLimit = Math.max(this.maxConcurrency / 2, MIN_CONCURRENCY);
+        this.concurrencyLimit = new AtomicInteger(initialLimit);
+        this.slots = new ResizableSemaphore(initialLimit);
+
+        Gauge.builder("fcm.adaptive.batch_size", currentBatchSize, AtomicInteger::get)
+                .description("현재 FCM 멀티캐스트 배치 크기")
+                .register(meterRegistry);
+        Gauge.builder("fcm.adaptive.concurrency_limit", concurrencyLimit, AtomicInteger::get)
+                .description("현재 FCM 동시 요청 한도")
+                .register(meterRegistry);
+        Gauge.builder("fcm.adaptive.in_flight", inFlight, AtomicInteger::get)
+                .description("진행 중인 FCM 요청 수")
+                .register(meterRegistry);
+        Gauge.builder("fcm.adaptive.latency.p50", this, optimizer -> optimizer.lastP50Ms)
+                .description("직전 윈도우 FCM 배치 지연 p50")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("fcm.adaptive.latency.p99", this, optimizer -> optimizer.lastP99Ms)
+                .description("직전 윈도우 FCM 배치 지연 p99")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("fcm.adaptive.success_rate", this, optimizer -> optimizer.lastSuccessRate)
+                .description("직전 윈도우 FCM 토큰 발송 성공률 (무효 토큰 제외)")
+                .register(meterRegistry);
+        this.congestionCounter = Counter.builder("fcm.adaptive.congestion")
+                .description("혼잡 판정으로 한도를 줄인 횟수")
+                .register(meterRegistry);
+    }
 
     /**
      * 현재 최적화된 배치 크기 반환
      */
     public int getOptimalBatchSize() {
-        optimizeIfNeeded();
+        adjustIfDue();
         return currentBatchSize.get();
     }
 
     /**
-     * 배치 처리 결과 기록
+     * 발송 슬롯 획득 (동시 요청 한도 도달 시 최대 acquireTimeoutMs 대기 - 백프레셔)
+     * FCM 응답이 멈춰 슬롯이 반환되지 않아도 호출 스레드가 무기한 멈추지 않음
+     * @return 제한 시간 안에 획득하면 true
      */
-    public void recordBatchResult(int batchSize, int successCount, int failureCount, long latencyMs) {
-        totalRequests.increment();
-        totalSuccesses.add(successCount);
-        totalFailures.add(failureCount);
-        totalLatency.addAndGet(latencyMs);
+    public boolean acquireSlot() throws InterruptedException {
+        if (!slots.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        int current = inFlight.incrementAndGet();
+        windowPeakInFlight.accumulateAndGet(current, Math::max);
+        return true;
+    }
 
-        log.debug("배치 결과 기록 - Size: {}, Success: {}, Failure: {}, Latency: {}ms",
-                batchSize, successCount, failureCount, latencyMs);
+    public void releaseSlot() {
+        inFlight.decrementAndGet();
+        slots.release();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
     }
 
     /**
-     * 필요시 배치 크기 최적화 수행
+     * 진행 중인 요청이 모두 끝날 때까지 대기 (종료 시)
      */
-    private void optimizeIfNeeded() {
-        long currentTime = System.currentTimeMillis();
-        long lastOptimization = lastOptimizationTime.get();
-
-        if (currentTime - lastOptimization >= OPTIMIZATION_INTERVAL_MS) {
-            if (lastOptimizationTime.compareAndSet(lastOptimization, currentTime)) {
-                optimizeBatchSize();
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
             }
+            Thread.sleep(50);
         }
+        return true;
     }
 
     /**
-     * 트래픽 패턴과 성능 메트릭을 기반으로 배치 크기 최적화
+     * 배치 응답 기록
+     * @param transientFailureCount 무효 토큰을 제외한 토큰 실패 수 (무효 토큰은 혼잡 신호가 아님)
      */
-    private void optimizeBatchSize() {
-        try {
-            long requests = totalRequests.sum();
-            if (requests < 10) {
-                // 데이터가 충분하지 않은 경우 기본값 유지
-                log.debug("배치 최적화 스킵 - 데이터 부족 (요청 수: {})", requests);
-                return;
-            }
-
-            double successRate = (double) totalSuccesses.sum() / (totalSuccesses.sum() + totalFailures.sum());
-            double avgLatency = requests > 0 ? (double) totalLatency.get() / requests : 0;
-
-            int currentSize = currentBatchSize.get();
-            int newSize = calculateOptimalSize(currentSize, successRate, avgLatency);
-
-            if (newSize != currentSize) {
-                currentBatchSize.set(newSize);
-                log.info("배치 크기 최적화 - 기존: {}, 신규: {}, 성공률: {:.2%}, 평균지연: {:.0f}ms",
-                        currentSize, newSize, successRate, avgLatency);
-            }
-
-            // 메트릭 리셋 (최근 성능만 반영하기 위해)
-            resetMetrics();
+    public void recordBatchResult(int batchSize, int successCount, int transientFailureCount, long latencyMs) {
+        latencyRecorder.recordValue(Math.min(Math.max(latencyMs, 0), MAX_TRACKABLE_LATENCY_MS));
+        windowSuccesses.add(successCount);
+        windowFailures.add(transientFailureCount);
 
-        } catch (Exception e) {
-            log.error("배치 크기 최적화 중 오류 발생", e);
-        }
+        log.debug("배치 결과 기록 - Size: {}, Success: {}, Failure: {}, Latency: {}ms",
+                batchSize, successCount, transientFailureCount, latencyMs);
     }
 
     /**
-     * 성능 지표를 기반으로 최적 배치 크기 계산
+     * 배치 전체 실패 기록
+     * @param retryable 재시도 가능한 오류(과부하/일시 장애) 여부 - 혼잡 신호로 사용
      */
-    private int calculateOptimalSize(int currentSize, double successRate, double avgLatency) {
-        int newSize = currentSize;
-
-        // 1. 시간대별 트래픽 패턴 고려
-        int timeBasedSize = getTimeBasedBatchSize();
-
-        // 2. 성공률 기반 조정
-        if (successRate < TARGET_SUCCESS_RATE) {
-            // 성공률이 낮으면 배치 크기 감소
-            newSize = Math.max(currentSize - 50, MIN_BATCH_SIZE);
-            log.debug("성공률 낮음 ({:.2%}) - 배치 크기 감소: {} -> {}", successRate, currentSize, newSize);
-        } else if (successRate > 0.98 && avgLatency < TARGET_LATENCY_MS) {
-            // 성공률이 매우 높고 지연시간이 목표 이하면 배치 크기 증가
-            newSize = Math.min(currentSize + 25, MAX_BATCH_SIZE);
-            log.debug("고성능 상태 - 배치 크기 증가: {} -> {}", currentSize, newSize);
-        }
-
-        // 3. 지연시간 기반 조정
-        if (avgLatency > TARGET_LATENCY_MS * 1.5) {
-            // 지연시간이 목표의 1.5배를 초과하면 크기 감소
-            newSize = Math.max(newSize - 75, MIN_BATCH_SIZE);
-            log.debug("지연시간 높음 ({:.0f}ms) - 배치 크기 감소: {} -> {}", avgLatency, currentSize, newSize);
+    public void recordBatchFailure(int batchSize, long latencyMs, boolean retryable) {
+        latencyRecorder.recordValue(Math.min(Math.max(latencyMs, 0), MAX_TRACKABLE_LATENCY_MS));
+        windowFailures.add(batchSize);
+        if (retryable) {
+            windowRetryableErrors.increment();
         }
-
-        // 4. 시간대별 권장 크기와 조정
-        newSize = adjustForTimePattern(newSize, timeBasedSize);
-
-        return Math.max(MIN_BATCH_SIZE, Math.min(newSize, MAX_BATCH_SIZE));
     }
 
     /**
-     * 시간대별 권장 배치 크기 반환
+     * 윈도우가 지났으면 한 스레드만 조정 수행
      */
-    private int getTimeBasedBatchSize() {
-        LocalTime now = LocalTime.now();
-        int hour = now.getHour();
-
-        // 시간대별 트래픽 패턴
-        if (hour >= 7 && hour <= 9) {
-            // 아침 출근시간 - 높은 트래픽
-            return 400;
-        } else if (hour >= 12 && hour <= 14) {
-            // 점심시간 - 중간 트래픽
-            return 300;
-        } else if (hour >= 18 && hour <= 22) {
-            // 저녁시간 - 높은 트래픽
-            return 450;
-        } else if (hour >= 23 || hour <= 6) {
-            // 새벽시간 - 낮은 트래픽
-            return 100;
-        } else {
-            // 일반 시간 - 기본 트래픽
-            return DEFAULT_BATCH_SIZE;
+    private void adjustIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastWindowAt.get();
+        if (now - last >= windowMs && lastWindowAt.compareAndSet(last, now)) {
+            adjust();
         }
     }
 
-    /**
-     * 시간대별 패턴과 현재 성능을 조합하여 최종 크기 조정
-     */
-    private int adjustForTimePattern(int performanceBasedSize, int timeBasedSize) {
-        // 가중 평균 (성능 기반 70%, 시간대 기반 30%)
-        int adjustedSize = (int) (performanceBasedSize * 0.7 + timeBasedSize * 0.3);
+    private synchronized void adjust() {
+        try {
+            intervalHistogram = latencyRecorder.getIntervalHistogram(intervalHistogram);
+            long samples = intervalHistogram.getTotalCount();
+            long successes = windowSuccesses.sumThenReset();
+            long failures = windowFailures.sumThenReset();
+            long retryableErrors = windowRetryableErrors.sumThenReset();
+            int peakInFlight = windowPeakInFlight.getAndSet(inFlight.get());
+
+            if (samples < MIN_WINDOW_SAMPLES && retryableErrors == 0) {
+                // 데이터가 충분하지 않은 경우 현재 한도 유지
+                log.debug("FCM 적응형 조정 스킵 - 데이터 부족 (배치 수: {})", samples);
+                return;
+            }
 
-        // 급격한 변화 방지 (현재 크기의 ±50% 이내로 제한)
-        int currentSize = currentBatchSize.get();
-        int maxIncrease = currentSize + (currentSize / 2);
-        int maxDecrease = currentSize - (currentSize / 2);
+            lastP50Ms = intervalHistogram.getValueAtPercentile(50);
+            lastP99Ms = intervalHistogram.getValueAtPercentile(99);
+            lastSuccessRate = (successes + failures) > 0 ? (double) successes / (successes + failures) : 1.0;
+
+            boolean congested = retryableErrors > 0 || lastP99Ms > targetP99Ms;
+            int batchSize = currentBatchSize.get();
+            int limit = concurrencyLimit.get();
+            int newBatchSize = batchSize;
+            int newLimit = limit;
+
+            if (congested) {
+                // 승산 감소
+                newBatchSize = Math.max((int) (batchSize * BATCH_SIZE_BACKOFF), MIN_BATCH_SIZE);
+                newLimit = Math.max((int) (limit * CONCURRENCY_BACKOFF), MIN_CONCURRENCY);
+                congestionCounter.increment();
+            } else {
+                // 가산 증가 - 동시 요청은 한도까지 실제로 쓰였을 때만 확장
+                if (peakInFlight >= limit) {
+                    newLimit = Math.min(limit + 1, maxConcurrency);
+                }
+                if (lastSuccessRate >= TARGET_SUCCESS_RATE && lastP99Ms <= targetP99Ms / 2) {
+                    newBatchSize = Math.min(batchSize + BATCH_SIZE_STEP, MAX_BATCH_SIZE);
+                }
+            }
 
-        adjustedSize = Math.max(maxDecrease, Math.min(adjustedSize, maxIncrease));
+            currentBatchSize.set(newBatchSize);
+            resizeConcurrency(limit, newLimit);
 
-        log.debug("배치 크기 조정 - 성능기반: {}, 시간기반: {}, 최종: {}",
-                performanceBasedSize, timeBasedSize, adjustedSize);
+            if (newBatchSize != batchSize || newLimit != limit) {
+                log.info("FCM 적응형 조정 - 배치: {} -> {}, 동시요청: {} -> {}, p50: {}ms, p99: {}ms, 성공률: {}%, 재시도성 오류: {}",
+                        batchSize, newBatchSize, limit, newLimit, lastP50Ms, lastP99Ms,
+                        String.format("%.1f", lastSuccessRate * 100), retryableErrors);
+            }
 
-        return adjustedSize;
+        } catch (Exception e) {
+            log.error("FCM 적응형 조정 중 오류 발생", e);
+        }
     }
 
-    /**
-     * 메트릭 초기화
-     */
-    private void resetMetrics() {
-        totalRequests.reset();
-        totalSuccesses.reset();
-        totalFailures.reset();
-        totalLatency.set(0);
+    private void resizeConcurrency(int limit, int newLimit) {
+        if (newLimit > limit) {
+            slots.release(newLimit - limit);
+        } else if (newLimit < limit) {
+            // 진행 중인 요청은 그대로 두고, 이후 획득부터 줄어든 한도 적용
+            slots.reducePermits(limit - newLimit);
+        }
+        concurrencyLimit.set(newLimit);
     }
 
     /**
      * 현재 성능 통계 반환
      */
     public BatchPerformanceStats getCurrentStats() {
-        long requests = totalRequests.sum();
-        long successes = totalSuccesses.sum();
-        long failures = totalFailures.sum();
-        double successRate = (successes + failures) > 0 ? (double) successes / (successes + failures) : 0;
-        double avgLatency = requests > 0 ? (double) totalLatency.get() / requests : 0;
-
         return new BatchPerformanceStats(
                 currentBatchSize.get(),
-                requests,
-                successRate,
-                avgLatency,
-                getTimeBasedBatchSize()
+                concurrencyLimit.get(),
+                inFlight.get(),
+                lastSuccessRate,
+                lastP50Ms,
+                lastP99Ms
         );
     }
 
@@ -216,10 +273,11 @@ public class FcmBatchOptimizer {
      */
     public record BatchPerformanceStats(
             int currentBatchSize,
-            long totalRequests,
+            int concurrencyLimit,
+            int inFlight,
             double successRate,
-            double avgLatencyMs,
-            int recommendedTimeBasedSize
+            long p50LatencyMs,
+            long p99LatencyMs
     ) {}
 
     /**
@@ -228,12 +286,28 @@ public class FcmBatchOptimizer {
     public String getOptimizationInfo() {
         BatchPerformanceStats stats = getCurrentStats();
         return String.format(
-                "배치최적화 [현재크기: %d, 요청수: %d, 성공률: %.1f%%, 평균지연: %.0fms, 시간권장: %d]",
+                "적응형제어 [배치: %d, 동시요청: %d/%d, 성공률: %.1f%%, p50: %dms, p99: %dms]",
                 stats.currentBatchSize(),
-                stats.totalRequests(),
+                stats.inFlight(),
+                stats.concurrencyLimit(),
                 stats.successRate() * 100,
-                stats.avgLatencyMs(),
-                stats.recommendedTimeBasedSize()
+                stats.p50LatencyMs(),
+                stats.p99LatencyMs()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * 한도를 줄일 수 있는 세마포어 (reducePermits 노출)
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+
+        private ResizableSemaphore(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.project.catxi.fcm.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간 버킷 기반 FCM 디듀프 저장소
+ * - 이벤트마다 키를 만드는 대신 bucket-seconds 단위 SET 하나에 BusinessKey 64비트 지문을 넣고 버킷 단위로 만료
+ * - 최근 window-seconds 를 덮는 버킷들을 모두 확인하므로 윈도우 안에서는 정확한 중복 판정 (지문 충돌 확률 무시 가능)
+ * - 만료 대상 키가 이벤트 수가 아닌 버킷 수만큼만 생겨 메모리와 만료 처리 부담이 줄어듦
+ */
+@Slf4j
+@Service
+public class FcmDedupService {
+
+    // Lua 스크립트: 윈도우 내 어느 버킷에도 없는 항목만 현재 버킷(KEYS[1])에 추가하고 반환
+    private static final String MARK_SCRIPT =
+        "local fresh = {} " +
+        "for i = 2, #ARGV do " +
+        "local seen = false " +
+        "for k = 2, #KEYS do " +
+        "if redis.call('SISMEMBER', KEYS[k], ARGV[i]) == 1 then seen = true break end " +
+        "end " +
+        "if not seen and redis.call('SADD', KEYS[1], ARGV[i]) == 1 then " +
+        "table.insert(fresh, ARGV[i]) " +
+        "end " +
+        "end " +
+        "redis.call('EXPIRE', KEYS[1], ARGV[1], 'NX') " +
+        "return fresh";
+
+    // Lua 스크립트: 윈도우 내 어느 버킷에도 없는 항목만 반환 (기록하지 않음)
+    private static final String CHECK_SCRIPT =
+        "local fresh = {} " +
+        "for i = 1, #ARGV do " +
+        "local seen = false " +
+        "for k = 1, #KEYS do " +
+        "if redis.call('SISMEMBER', KEYS[k], ARGV[i]) == 1 then seen = true break end " +
+        "end " +
+        "if not seen then table.insert(fresh, ARGV[i]) end " +
+        "end " +
+        "return fresh";
+
+    // Lua 스크립트: 버킷별 [항목 수, 메모리 바이트]
+    private static final String STATS_SCRIPT =
+        "local out = {} " +
+        "for i = 1, #KEYS do " +
+        "local entries = 0 " +
+        "local bytes = 0 " +
+        "if redis.call('EXISTS', KEYS[i]) == 1 then " +
+        "entries = redis.call('SCARD', KEYS[i]) " +
+        "bytes = redis.call('MEMORY', 'USAGE', KEYS[i]) or 0 " +
+        "end " +
+        "table.insert(out, entries) " +
+        "table.insert(out, bytes) " +
+        "end " +
+        "return out";
+
+    /**
+     * 디듀프 종류별 버킷 키 접두사
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Kind {
+        // 발행 시 BusinessKey 중복 (스트림 추가와 같은 스크립트에서 확인)
+        EVENT("event", "fcm:dedup:bucket:"),
+        // 수신자별 발송 이력 (발송 성공 후 기록, 재전달/재시도 시 이미 보낸 수신자 제외)
+        RECIPIENT("recipient", "fcm:recipients:bucket:");
+
+        private final String tag;
+        private final String keyPrefix;
+    }
+
+    private final @Qualifier("chatPubSub") StringRedisTemplate redisTemplate;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> markScript;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> checkScript;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> statsScript;
+
+    private final long bucketSeconds;
+    private final int windowBuckets;
+    private final long bucketTtlSeconds;
+
+    private final Map<Kind, AtomicLong> entries = new EnumMap<>(Kind.class);
+    private final Map<Kind, AtomicLong> memoryBytes = new EnumMap<>(Kind.class);
+
+    public FcmDedupService(
+            @Qualifier("chatPubSub") StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${fcm.dedup.bucket-seconds:60}") long bucketSeconds,
+            @Value("${fcm.dedup.window-seconds:300}") long windowSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.bucketSeconds = bucketSeconds;
+        // 현재 버킷 + 이전 버킷들이 윈도우 전체를 덮도록 (버킷 경계에 걸친 경우 포함)
+        this.windowBuckets = (int) ((windowSeconds + bucketSeconds - 1) / bucketSeconds);
+        this.bucketTtlSeconds = (windowBuckets + 1) * bucketSeconds;
+
+        this.markScript = new DefaultRedisScript<>();
+        this.markScript.setScriptText(MARK_SCRIPT);
+        this.markScript.setResultType(List.class);
+
+        this.checkScript = new DefaultRedisScript<>();
+        this.checkScript.setScriptText(CHECK_SCRIPT);
+        this.checkScript.setResultType(List.class);
+
+        this.statsScript = new DefaultRedisScript<>();
+        this.statsScript.setScriptText(STATS_SCRIPT);
+        this.statsScript.setResultType(List.class);
+
+        // 종류별 디듀프 항목 수 / 메모리 (stats-interval 마다 갱신)
+        for (Kind kind : Kind.values()) {
+            AtomicLong entryCount = new AtomicLong();
+            AtomicLong bytes = new AtomicLong();
+            entries.put(kind, entryCount);
+            memoryBytes.put(kind, bytes);
+            Gauge.builder("fcm.dedup.entries", entryCount, AtomicLong::get)
+                    .description("윈도우 내 디듀프 항목 수")
+                    .tag("kind", kind.getTag())
+                    .register(meterRegistry);
+            Gauge.builder("fcm.dedup.memory", bytes, AtomicLong::get)
+                    .description("디듀프 버킷 메모리 사용량 (MEMORY USAGE 합)")
+                    .tag("kind", kind.getTag())
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+
+        log.info("FCM 디듀프 버킷 설정 - Bucket: {}s, Window: {}s ({}개 버킷), TTL: {}s",
+                bucketSeconds, windowSeconds, windowBuckets + 1, bucketTtlSeconds);
+    }
+
+    /**
+     * 윈도우를 덮는 버킷 키 목록 (첫 번째가 현재 버킷)
+     */
+    public List<String> bucketKeys(Kind kind) {
+        long current = System.currentTimeMillis() / 1000 / bucketSeconds;
+        List<String> keys = new ArrayList<>(windowBuckets + 1);
+        for (int i = 0; i <= windowBuckets; i++) {
+            keys.add(kind.getKeyPrefix() + (current - i));
+        }
+        return keys;
+    }
+
+    public long getBucketTtlSeconds() {
+        return bucketTtlSeconds;
+    }
+
+    /**
+     * BusinessKey 64비트 지문 (SHA-256 앞 8바이트, 36진수 최대 13자)
+     */
+    public static String fingerprint(String businessKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long bits = ByteBuffer.wrap(digest.digest(businessKey.getBytes(StandardCharsets.UTF_8))).getLong();
+            return Long.toUnsignedString(bits, 36);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 알고리즘을 사용할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 컨슈머 수신자별 디듀프 - 아직 발송되지 않은 수신자만 반환 (확인만 하고 기록하지 않음)
+     * 재전달/재시도된 이벤트라도 윈도우 안에 이미 발송에 성공한 수신자에게는 다시 보내지 않음
+     * 발송 성공 기록은 markDelivered 에서 (발송 전에 기록하면 실패 시 재시도가 모두 걸러짐)
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> filterUndeliveredRecipients(String businessKey, List<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return memberIds;
+        }
+        try {
+            String prefix = fingerprint(businessKey) + ":";
+            List<String> fresh = redisTemplate.execute(checkScript, bucketKeys(Kind.RECIPIENT),
+                    recipientMembers(prefix, memberIds).toArray());
+            if (fresh == null) {
+                return memberIds;
+            }
+            return fresh.stream()
+                    .map(member -> Long.valueOf(member.substring(prefix.length())))
+                    .toList();
+        } catch (Exception e) {
+            log.warn("수신자 디듀프 검사 실패, 전체 발송 - BusinessKey: {}", businessKey, e);
+            return memberIds; // 실패 시 안전을 위해 처리 진행
+        }
+    }
+
+    /**
+     * 발송 성공(또는 다이제스트 인계) 수신자 기록
+     */
+    public void markDelivered(String businessKey, Collection<Long> memberIds) {
+        if (businessKey == null || memberIds.isEmpty()) {
+            return;
+        }
+        try {
+            mark(Kind.RECIPIENT, recipientMembers(fingerprint(businessKey) + ":", memberIds));
+        } catch (Exception e) {
+            // 기록 실패 시 재전달되면 중복 발송될 수 있음
+            log.warn("수신자 발송 기록 실패 - BusinessKey: {}, Count: {}", businessKey, memberIds.size(), e);
+        }
+    }
+
+    private static List<String> recipientMembers(String prefix, Collection<Long> memberIds) {
+        List<String> members = new ArrayList<>(memberIds.size());
+        for (Long memberId : memberIds) {
+            members.add(prefix + memberId);
+        }
+        return members;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> mark(Kind kind, List<String> members) {
+        Object[] args = new Object[members.size() + 1];
+        args[0] = String.valueOf(bucketTtlSeconds);
+        for (int i = 0; i < members.size(); i++) {
+            args[i + 1] = members.get(i);
+        }
+        return redisTemplate.execute(markScript, bucketKeys(kind), args);
+    }
+
+    /**
+     * 종류별 버킷 항목 수 / 메모리 사용량 갱신 (1회 왕복)
+     */
+    @SuppressWarnings("unchecked")
+    @Scheduled(fixedDelayString = "${fcm.dedup.stats-interval-ms:30000}")
+    public void refreshStats() {
+        try {
+            Kind[] kinds = Kind.values();
+            List<String> keys = new ArrayList<>();
+            for (Kind kind : kinds) {
+                keys.addAll(bucketKeys(kind));
+            }
+            List<Long> result = redisTemplate.execute(statsScript, keys);
+            if (result == null) {
+                return;
+            }
+
+            int perKind = windowBuckets + 1;
+            for (int k = 0; k < kinds.length; k++) {
+                long entryCount = 0;
+                long bytes = 0;
+                for (int i = k * perKind; i < (k + 1) * perKind; i++) {
+                    entryCount += result.get(i * 2);
+                    bytes += result.get(i * 2 + 1);
+                }
+                entries.get(kinds[k]).set(entryCount);
+                memoryBytes.get(kinds[k]).set(bytes);
+            }
+        } catch (Exception e) {
+            log.debug("FCM 디듀프 통계 조회 실패", e);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.project.catxi.fcm.service;
+
+import com.project.catxi.chat.service.PresenceService;
+import com.project.catxi.member.domain.Member;
+import com.project.catxi.member.repository.MemberRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 채팅 알림 다이제스트 서비스
+ * - 같은 (사용자, 채팅방)의 채팅 알림을 윈도우 동안 모아 한 번의 푸시로 발송
+ * - 다이제스트는 Redis에 저장되어 어느 서버든 발송 가능
+ * - 사용자별 분당 푸시 횟수 상한 초과 시 다음 분으로 연기 (알림은 계속 누적)
+ */
+@Slf4j
+@Service
+public class FcmDigestService {
+
+    private static final String DUE_KEY = "fcm:digest:due";
+    private static final String DIGEST_KEY_PREFIX = "fcm:digest:";
+    private static final String RATE_KEY_PREFIX = "fcm:push:rate:";
+    private static final long DIGEST_TTL_MARGIN_MS = 600_000; // 연기 대비 10분 여유
+    private static final int FLUSH_BATCH_SIZE = 200;
+
+    // Lua 스크립트: 수신자별 다이제스트 누적 + 첫 알림 기준으로 발송 시각 등록 (ZADD NX)
+    private static final String ACCUMULATE_SCRIPT =
+        "for i = 2, #KEYS do " +
+        "redis.call('HINCRBY', KEYS[i], 'count', 1) " +
+        "redis.call('HSET', KEYS[i], 'sender', ARGV[3], 'message', ARGV[4]) " +
+        "redis.call('PEXPIRE', KEYS[i], ARGV[2]) " +
+        "redis.call('ZADD', KEYS[1], 'NX', ARGV[1], ARGV[i + 3]) " +
+        "end " +
+        "return #KEYS - 1";
+
+    // Lua 스크립트: 발송 시각이 지난 다이제스트를 원자적으로 꺼냄 (서버 간 중복 발송 방지)
+    // 분당 상한을 넘은 사용자는 다음 분으로 연기 (발송 횟수 증가는 활성 사용자 제외 후 Java 에서)
+    // KEYS[1] = due ZSET, KEYS[2i], KEYS[2i+1] = i번째 후보의 다이제스트 키, 분당 발송 횟수 키
+    // ARGV = now, 분당 상한, 다음 분 시각, 후보 member...
+    private static final String FLUSH_SCRIPT =
+        "local pending = {} " +
+        "local out = {} " +
+        "for i = 4, #ARGV do " +
+        "local member = ARGV[i] " +
+        "local digestKey = KEYS[(i - 4) * 2 + 2] " +
+        "local rateKey = KEYS[(i - 4) * 2 + 3] " +
+        "local score = redis.call('ZSCORE', KEYS[1], member) " +
+        "if score and tonumber(score) <= tonumber(ARGV[1]) then " +
+        "local sent = tonumber(redis.call('GET', rateKey) or '0') + (pending[rateKey] or 0) " +
+        "if sent >= tonumber(ARGV[2]) then " +
+        "redis.call('ZADD', KEYS[1], ARGV[3], member) " +
+        "else " +
+        "redis.call('ZREM', KEYS[1], member) " +
+        "local d = redis.call('HMGET', digestKey, 'count', 'sender', 'message') " +
+        "redis.call('DEL', digestKey) " +
+        "if d[1] then " +
+        "pending[rateKey] = (pending[rateKey] or 0) + 1 " +
+        "table.insert(out, member) " +
+        "table.insert(out, d[1]) " +
+        "table.insert(out, d[2] or '') " +
+        "table.insert(out, d[3] or '') " +
+        "end " +
+        "end " +
+        "end " +
+        "end " +
+        "return out";
+
+    private static final long RATE_KEY_TTL_SECONDS = 120;
+
+    private final @Qualifier("chatPubSub") StringRedisTemplate redisTemplate;
+    private final MemberRepository memberRepository;
+    private final FcmNotificationService fcmNotificationService;
+    private final PresenceService presenceService;
+    private final Counter suppressedCounter;
+
+    private final DefaultRedisScript<Long> accumulateScript;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> flushScript;
+
+    private final long windowMs;
+    private final int maxPushesPerMinute;
+
+    public FcmDigestService(
+            @Qualifier("chatPubSub") StringRedisTemplate redisTemplate,
+            MemberRepository memberRepository,
+            FcmNotificationService fcmNotificationService,
+            PresenceService presenceService,
+            MeterRegistry meterRegistry,
+            @Value("${fcm.digest.window-ms:3000}") long windowMs,
+            @Value("${fcm.digest.max-pushes-per-minute:6}") int maxPushesPerMinute) {
+        this.redisTemplate = redisTemplate;
+        this.memberRepository = memberRepository;
+        this.fcmNotificationService = fcmNotificationService;
+        this.presenceService = presenceService;
+        this.suppressedCounter = Counter.builder("fcm.recipients.suppressed")
+                .tag("type", "CHAT_DIGEST")
+                .tag("reason", "presence")
+                .register(meterRegistry);
+        this.windowMs = windowMs;
+        this.maxPushesPerMinute = maxPushesPerMinute;
+
+        this.accumulateScript = new DefaultRedisScript<>(ACCUMULATE_SCRIPT, Long.class);
+
+        this.flushScript = new DefaultRedisScript<>();
+        this.flushScript.setScriptText(FLUSH_SCRIPT);
+        this.flushScript.setResultType(List.class);
+    }
+
+    /**
+     * 윈도우가 0 이하이면 다이제스트 없이 즉시 발송
+     */
+    public boolean isEnabled() {
+        return windowMs > 0;
+    }
+
+    /**
+     * 채팅 알림을 수신자별 다이제스트에 누적
+     *
+     * @return 누적 성공 여부 (false면 호출 측에서 즉시 발송)
+     */
+    public boolean accumulate(List<Long> recipientIds, Long roomId, String senderNickname, String message) {
+        if (!isEnabled() || recipientIds.isEmpty()) {
+            return false;
+        }
+        try {
+            List<String> keys = new ArrayList<>(recipientIds.size() + 1);
+            keys.add(DUE_KEY);
+            Object[] args = new Object[recipientIds.size() + 4];
+            args[0] = String.valueOf(System.currentTimeMillis() + windowMs);
+            args[1] = String.valueOf(windowMs + DIGEST_TTL_MARGIN_MS);
+            args[2] = senderNickname;
+            args[3] = message;
+            for (int i = 0; i < recipientIds.size(); i++) {
+                String digestMember = recipientIds.get(i) + ":" + roomId;
+                keys.add(DIGEST_KEY_PREFIX + digestMember);
+                args[i + 4] = digestMember;
+            }
+
+            redisTemplate.execute(accumulateScript, keys, args);
+            log.debug("채팅 알림 다이제스트 누적 - RoomId: {}, Recipients: {}", roomId, recipientIds.size());
+            return true;
+        } catch (Exception e) {
+            log.warn("채팅 알림 다이제스트 누적 실패, 즉시 발송 - RoomId: {}", roomId, e);
+            return false;
+        }
+    }
+
+    /**
+     * 발송 시각이 지난 다이제스트 발송
+     */
+    @Scheduled(fixedDelayString = "${fcm.digest.flush-interval-ms:1000}")
+    public void flushDueDigests() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            long minuteBucket = now / 60_000;
+            long nextMinuteMs = (minuteBucket + 1) * 60_000;
+
+            // 후보 조회 후 스크립트에서 다시 확인하며 꺼냄 (스크립트가 접근하는 키는 모두 KEYS 로 전달)
+            Set<String> candidates = redisTemplate.opsForZSet()
+                    .rangeByScore(DUE_KEY, Double.NEGATIVE_INFINITY, now, 0, FLUSH_BATCH_SIZE);
+            if (candidates == null || candidates.isEmpty()) {
+                return;
+            }
+            List<String> keys = new ArrayList<>(candidates.size() * 2 + 1);
+            keys.add(DUE_KEY);
+            List<String> args = new ArrayList<>(candidates.size() + 3);
+            args.add(String.valueOf(now));
+            args.add(String.valueOf(maxPushesPerMinute));
+            args.add(String.valueOf(nextMinuteMs));
+            for (String candidate : candidates) {
+                keys.add(DIGEST_KEY_PREFIX + candidate);
+                keys.add(rateKey(Long.parseLong(candidate.substring(0, candidate.indexOf(':'))), minuteBucket));
+                args.add(candidate);
+            }
+
+            @SuppressWarnings("unchecked")
+            List<String> result = redisTemplate.execute(flushScript, keys, args.toArray());
+
+            if (result == null || result.isEmpty()) {
+                return;
+            }
+
+            List<Digest> digests = new ArrayList<>(result.size() / 4);
+            List<Long> digestMemberIds = new ArrayList<>(result.size() / 4);
+            List<Long> digestRoomIds = new ArrayList<>(result.size() / 4);
+            for (int i = 0; i + 3 < result.size(); i += 4) {
+                String[] ids = result.get(i).split(":");
+                Digest digest = new Digest(Long.parseLong(ids[0]), Long.parseLong(ids[1]),
+                        Long.parseLong(result.get(i + 1)), result.get(i + 2), result.get(i + 3));
+                digests.add(digest);
+                digestMemberIds.add(digest.memberId());
+                digestRoomIds.add(digest.roomId());
+            }
+
+            // 윈도우 동안 채팅방에 들어온 사용자는 발송 제외 (배치 전체 MGET 1회)
+            BitSet active = presenceService.findActiveMembers(digestMemberIds, digestRoomIds);
+            Set<Long> memberIds = new HashSet<>();
+            for (int i = 0; i < digests.size(); i++) {
+                if (!active.get(i)) {
+                    memberIds.add(digests.get(i).memberId());
+                }
+            }
+            suppressedCounter.increment(active.cardinality());
+
+            Map<Long, Member> members = memberRepository.findAllById(memberIds).stream()
+                    .collect(Collectors.toMap(Member::getId, Function.identity()));
+
+            // 실제 발송하는 다이제스트만 분당 발송 횟수에 반영 (활성 사용자로 제외된 건은 상한에 포함하지 않음)
+            Map<Long, Integer> sentCounts = new HashMap<>();
+            for (int i = 0; i < digests.size(); i++) {
+                Long memberId = digests.get(i).memberId();
+                if (!active.get(i) && members.containsKey(memberId)) {
+                    sentCounts.merge(memberId, 1, Integer::sum);
+                }
+            }
+            recordPushes(sentCounts, minuteBucket);
+
+            for (int i = 0; i < digests.size(); i++) {
+                Digest digest = digests.get(i);
+                Member member = members.get(digest.memberId());
+                if (member == null || active.get(i)) {
+                    continue;
+                }
+                fcmNotificationService.sendChatDigestNotificationSync(member, digest.roomId(),
+                        digest.senderNickname(), digest.messageCount(), digest.latestMessage());
+            }
+
+            log.debug("채팅 알림 다이제스트 발송 - Count: {}", digests.size());
+        } catch (Exception e) {
+            if (e.getMessage() != null &&
+                (e.getMessage().contains("LettuceConnectionFactory has been STOPPED") ||
+                 e.getMessage().contains("Connection factory shut down"))) {
+                log.debug("다이제스트 발송 중 Redis 연결 이미 종료됨");
+                return;
+            }
+            log.error("채팅 알림 다이제스트 발송 실패", e);
+        }
+    }
+
+    private void recordPushes(Map<Long, Integer> sentCounts, long minuteBucket) {
+        if (sentCounts.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                sentCounts.forEach((memberId, count) -> {
+                    String rateKey = rateKey(memberId, minuteBucket);
+                    stringConnection.incrBy(rateKey, count);
+                    stringConnection.expire(rateKey, RATE_KEY_TTL_SECONDS);
+                });
+                return null;
+            });
+        } catch (Exception e) {
+            // 이미 꺼낸 다이제스트는 발송 (이번 분 상한 계산에서만 빠짐)
+            log.warn("분당 푸시 횟수 기록 실패 - Members: {}", sentCounts.size(), e);
+        }
+    }
+
+    private static String rateKey(Long memberId, long minuteBucket) {
+        return RATE_KEY_PREFIX + memberId + ":" + minuteBucket;
+    }
+
+    private record Digest(
+            Long memberId,
+            Long roomId,
+            long messageCount,
+            String senderNickname,
+            String latestMessage
+    ) {}
+}
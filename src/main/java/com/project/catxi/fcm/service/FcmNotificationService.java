@@ -1,242 +1,380 @@
 package com.project.catxi.fcm.service;
 
-import com.google.firebase.messaging.*;
+import com.project.catxi.fcm.dto.FcmNotificationEvent;
+import com.project.catxi.fcm.dto.FcmNotificationEvent.NotificationType;
+import com.project.catxi.fcm.gateway.PushBatchResult;
+import com.project.catxi.fcm.gateway.PushBatchResult.FailureType;
+import com.project.catxi.fcm.gateway.PushBatchResult.TokenResult;
+import com.project.catxi.fcm.gateway.PushGateway;
+import com.project.catxi.fcm.gateway.PushGatewayException;
+import com.project.catxi.fcm.gateway.PushMessage;
 import com.project.catxi.member.domain.Member;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 public class FcmNotificationService {
 
-    private final FirebaseMessaging firebaseMessaging;
+    private final PushGateway pushGateway;
     private final FcmTokenService fcmTokenService;
     private final FcmBatchOptimizer batchOptimizer;
+    private final FcmDedupService fcmDedupService;
+    private final FcmRetryQueueService fcmRetryQueueService;
+    private final ThreadPoolTaskExecutor dispatchExecutor;
+    private final MeterRegistry meterRegistry;
 
     public FcmNotificationService(
-            @Autowired(required = false) FirebaseMessaging firebaseMessaging,
+            PushGateway pushGateway,
             FcmTokenService fcmTokenService,
-            FcmBatchOptimizer batchOptimizer) {
-        this.firebaseMessaging = firebaseMessaging;
+            FcmBatchOptimizer batchOptimizer,
+            FcmDedupService fcmDedupService,
+            FcmRetryQueueService fcmRetryQueueService,
+            @Qualifier("fcmDispatchExecutor") ThreadPoolTaskExecutor dispatchExecutor,
+            MeterRegistry meterRegistry) {
+        this.pushGateway = pushGateway;
         this.fcmTokenService = fcmTokenService;
         this.batchOptimizer = batchOptimizer;
-
-        if (firebaseMessaging == null) {
-            log.warn("FirebaseMessaging이 주입되지 않았습니다. FCM 알림 기능이 비활성화됩니다.");
-        }
+        this.fcmDedupService = fcmDedupService;
+        this.fcmRetryQueueService = fcmRetryQueueService;
+        this.dispatchExecutor = dispatchExecutor;
+        this.meterRegistry = meterRegistry;
     }
 
     private boolean isFirebaseInitialized() {
-        return firebaseMessaging != null;
+        return pushGateway.isAvailable();
     }
 
     /**
      * 채팅 메시지 알림 발송 (동기 - Redis Consumer에서 호출용)
-     * @param targetMember 알림을 받을 사용자
+     * 메시지 1건의 모든 수신자 토큰을 모아 한 번의 멀티캐스트로 발송
+     * 발송에 성공한 수신자는 응답 콜백에서 수신자 디듀프에 기록, 실패한 수신자는 재시도 지연 큐로 이동
+     * 발송 요청 전 예외(토큰 조회 실패 등)는 호출한 컨슈머로 전파되어 이벤트 단위로 재시도
+     * @param event 원본 큐 이벤트
+     * @param targetMembers 알림을 받을 사용자들
      * @param senderNickname 메시지 발송자 닉네임
      * @param message 채팅 내용
      */
-    public void sendChatNotificationSync(Member targetMember, String senderNickname, String message) {
+    public void sendChatNotificationSync(FcmNotificationEvent event, List<Member> targetMembers,
+                                         String senderNickname, String message) {
+        if (!isFirebaseInitialized()) {
+            log.warn("Firebase가 초기화되지 않아 채팅 알림을 발송할 수 없습니다.");
+            return;
+        }
+
+        Map<String, Long> tokens = collectTokens(targetMembers);
+        if (!tokens.isEmpty()) {
+            String title = "새로운 채팅 메시지";
+            String body = String.format("%s: %s", senderNickname, message);
+            sendMulticastNotification(tokens, title, body, "CHAT", event.roomId(), event);
+            log.debug("채팅 알림 발송 완료 - Targets: {}, Tokens: {}", targetMembers.size(), tokens.size());
+        }
+    }
+
+    /**
+     * 채팅 알림 다이제스트 발송 (윈도우 동안 모인 채팅방 알림을 1건으로)
+     * @param member 알림을 받을 사용자
+     * @param roomId 채팅방 ID
+     * @param senderNickname 마지막 메시지 발송자 닉네임
+     * @param messageCount 모인 메시지 수
+     * @param latestMessage 마지막 채팅 내용
+     * 실패 시 마지막 메시지로 만든 채팅 이벤트를 재시도 지연 큐에 등록 (재시도는 다이제스트를 거치지 않고 바로 발송)
+     */
+    public void sendChatDigestNotificationSync(Member member, Long roomId, String senderNickname,
+                                               long messageCount, String latestMessage) {
+        FcmNotificationEvent event = FcmNotificationEvent.createChatMessage(
+                List.of(member.getId()), roomId, null, senderNickname, latestMessage);
         try {
             if (!isFirebaseInitialized()) {
                 log.warn("Firebase가 초기화되지 않아 채팅 알림을 발송할 수 없습니다.");
                 return;
             }
 
-            List<String> tokens = fcmTokenService.getActiveTokens(targetMember);
+            Map<String, Long> tokens = new LinkedHashMap<>();
+            fcmTokenService.getActiveTokens(member).forEach(token -> tokens.putIfAbsent(token, member.getId()));
             if (!tokens.isEmpty()) {
                 String title = "새로운 채팅 메시지";
-                String body = String.format("%s: %s", senderNickname, message);
-                sendMulticastNotification(tokens, title, body, "CHAT");
-                log.debug("채팅 알림 발송 완료 - Member ID: {}", targetMember.getId());
+                String body = messageCount > 1
+                        ? String.format("%s 외 %d건: %s", senderNickname, messageCount - 1, latestMessage)
+                        : String.format("%s: %s", senderNickname, latestMessage);
+                sendMulticastNotification(tokens, title, body, "CHAT", roomId, event);
+                log.debug("채팅 다이제스트 알림 발송 완료 - MemberId: {}, RoomId: {}, Messages: {}",
+                        member.getId(), roomId, messageCount);
             }
 
         } catch (Exception e) {
-            log.error("채팅 알림 발송 실패 - Member ID: {}", targetMember.getId(), e);
+            log.error("채팅 다이제스트 알림 발송 실패 - MemberId: {}, RoomId: {}", member.getId(), roomId, e);
+            fcmRetryQueueService.scheduleRetry(event, "다이제스트 발송 실패: " + e.getMessage());
         }
     }
 
     /**
      * 방장의 준비요청 알림 발송 (성능 최적화 - 배치 처리)
+     * @param event 원본 큐 이벤트
      * @param targetMembers 알림을 받을 사용자들
      * @param roomId 채팅방 ID
      */
-    public void sendReadyRequestNotificationSync(List<Member> targetMembers, Long roomId) {
-        try {
-            if (!isFirebaseInitialized()) {
-                log.warn("Firebase가 초기화되지 않아 준비요청 알림을 발송할 수 없습니다.");
-                return;
-            }
+    public void sendReadyRequestNotificationSync(FcmNotificationEvent event, List<Member> targetMembers, Long roomId) {
+        if (!isFirebaseInitialized()) {
+            log.warn("Firebase가 초기화되지 않아 준비요청 알림을 발송할 수 없습니다.");
+            return;
+        }
 
-            // 모든 토큰을 한 번에 수집하여 배치 처리
-            List<String> allTokens = targetMembers.stream()
-                    .flatMap(member -> fcmTokenService.getActiveTokens(member).stream())
-                    .distinct() // 중복 토큰 제거
-                    .toList();
-
-            if (!allTokens.isEmpty()) {
-                String title = "준비 요청";
-                String body = "방장이 준비요청을 보냈습니다";
-                sendMulticastNotification(allTokens, title, body, "READY_REQUEST", roomId);
-
-                log.debug("준비요청 알림 발송 완료 - Room ID: {}, Targets: {}, Tokens: {}",
-                         roomId, targetMembers.size(), allTokens.size());
-            } else {
-                log.debug("준비요청 알림 대상 토큰 없음 - Room ID: {}", roomId);
-            }
+        // 모든 토큰을 한 번에 수집하여 배치 처리
+        Map<String, Long> allTokens = collectTokens(targetMembers);
 
-        } catch (Exception e) {
-            log.error("준비요청 알림 발송 실패 - Room ID: {}", roomId, e);
+        if (!allTokens.isEmpty()) {
+            String title = "준비 요청";
+            String body = "방장이 준비요청을 보냈습니다";
+            sendMulticastNotification(allTokens, title, body, "READY_REQUEST", roomId, event);
+
+            log.debug("준비요청 알림 발송 완료 - Room ID: {}, Targets: {}, Tokens: {}",
+                     roomId, targetMembers.size(), allTokens.size());
+        } else {
+            log.debug("준비요청 알림 대상 토큰 없음 - Room ID: {}", roomId);
         }
     }
 
     /**
-     * 멀티캐스트 알림 발송
+     * 대상 사용자들의 모든 기기 토큰을 한 번의 쿼리로 수집 (토큰 -> 소유 사용자 ID, 중복 토큰 제거)
      */
-    private void sendMulticastNotification(List<String> tokens, String title, String body, String type) {
-        sendMulticastNotification(tokens, title, body, type, null);
+    private Map<String, Long> collectTokens(List<Member> targetMembers) {
+        List<Long> memberIds = targetMembers.stream().map(Member::getId).toList();
+        Map<String, Long> tokenOwners = new LinkedHashMap<>();
+        fcmTokenService.getActiveTokens(memberIds).forEach((memberId, tokens) ->
+                tokens.forEach(token -> tokenOwners.putIfAbsent(token, memberId)));
+        return tokenOwners;
     }
 
-    private void sendMulticastNotification(List<String> tokens, String title, String body, String type, Long roomId) {
-        try {
-            if (!isFirebaseInitialized()) {
-                log.warn("FirebaseMessaging이 초기화되지 않아 알림을 발송할 수 없습니다.");
-                return;
-            }
+    /**
+     * 멀티캐스트 알림 발송
+     * @param event 원본 큐 이벤트 (실패 수신자 재시도용)
+     */
+    private void sendMulticastNotification(Map<String, Long> tokenOwners, String title, String body, String type,
+                                           Long roomId, FcmNotificationEvent event) {
+        // 토큰 유효성 검사
+        List<String> validTokens = tokenOwners.keySet().stream()
+                .filter(this::isValidFcmToken)
+                .toList();
+
+        if (validTokens.isEmpty()) {
+            log.debug("유효한 FCM 토큰이 없습니다.");
+            return;
+        }
 
-            // 토큰 유효성 검사
-            List<String> validTokens = tokens.stream()
-                    .filter(this::isValidFcmToken)
-                    .toList();
+        // 동적 배치 크기 조정
+        final int BATCH_SIZE = batchOptimizer.getOptimalBatchSize();
+        DispatchSource source = new DispatchSource(event, tokenOwners);
 
-            if (validTokens.isEmpty()) {
-                log.debug("유효한 FCM 토큰이 없습니다.");
-                return;
-            }
+        for (int i = 0; i < validTokens.size(); i += BATCH_SIZE) {
+            int end = Math.min(i + BATCH_SIZE, validTokens.size());
+            List<String> batchTokens = validTokens.subList(i, end);
 
-            // 동적 배치 크기 조정
-            final int BATCH_SIZE = batchOptimizer.getOptimalBatchSize();
-            AtomicInteger totalSuccessCount = new AtomicInteger(0);
-            AtomicInteger totalFailureCount = new AtomicInteger(0);
+            dispatchBatch(batchTokens, title, body, type, roomId, source);
+        }
 
-            for (int i = 0; i < validTokens.size(); i += BATCH_SIZE) {
-                int end = Math.min(i + BATCH_SIZE, validTokens.size());
-                List<String> batchTokens = validTokens.subList(i, end);
+        log.debug("FCM 알림 발송 요청 완료 - 토큰: {}, 타입: {}, 배치크기: {}, 진행중: {}",
+                validTokens.size(), type, BATCH_SIZE, batchOptimizer.getInFlight());
+    }
 
-                sendMulticastBatch(batchTokens, title, body, type, roomId, totalSuccessCount, totalFailureCount);
-            }
+    /**
+     * 멀티캐스트 배치 비동기 전송 (결과는 완료 콜백에서 처리)
+     * 호출 스레드는 FCM 응답을 기다리지 않고, 실패한 수신자는 재시도 지연 큐(Redis)로 넘김
+     */
+    private void dispatchBatch(List<String> tokens, String title, String body, String type, Long roomId,
+                               DispatchSource source) {
+        PushMessage message = buildPushMessage(tokens, title, body, type, roomId);
 
-            log.info("FCM 알림 발송 완료 - 성공: {}, 실패: {}, 타입: {}, 배치크기: {}, 최적화정보: [{}]",
-                    totalSuccessCount.get(), totalFailureCount.get(), type, BATCH_SIZE, batchOptimizer.getOptimizationInfo());
+        try {
+            // 동시 요청 한도는 적응형 제어기가 조정 (한도 도달 시에만 발송 스레드 대기 - 백프레셔)
+            if (!batchOptimizer.acquireSlot()) {
+                log.warn("FCM 발송 슬롯 대기 시간 초과 - 배치크기: {}, 진행중: {}", tokens.size(), batchOptimizer.getInFlight());
+                meterRegistry.counter("fcm.send.slot_timeout", "type", type).increment();
+                retryRecipients(source, ownersOf(tokens, source), "발송 슬롯 대기 시간 초과");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("FCM 발송 대기 중 인터럽트 발생 - 배치크기: {}", tokens.size());
+            retryRecipients(source, ownersOf(tokens, source), "발송 대기 중 인터럽트");
+            return;
+        }
 
+        long startTime = System.currentTimeMillis();
+        try {
+            // 슬롯은 완료 즉시 반환하고, 결과 처리는 발송 전용 실행기에서 수행
+            pushGateway.sendMulticast(message).whenComplete((result, t) -> {
+                batchOptimizer.releaseSlot();
+                if (t == null) {
+                    dispatchExecutor.execute(() -> handleBatchResponse(tokens, type, result, source, startTime));
+                } else {
+                    dispatchExecutor.execute(() -> handleBatchFailure(tokens, type, source, t, startTime));
+                }
+            });
         } catch (Exception e) {
-            log.error("FCM 알림 발송 중 예외 발생: {}", e.getMessage(), e);
+            batchOptimizer.releaseSlot();
+            batchOptimizer.recordBatchFailure(tokens.size(), System.currentTimeMillis() - startTime, false);
+            recordSend(type, "failure", System.currentTimeMillis() - startTime);
+            log.error("FCM 배치 전송 요청 실패 - 배치크기: {}, Error: {}", tokens.size(), e.getMessage(), e);
+            retryRecipients(source, ownersOf(tokens, source), "전송 요청 실패: " + e.getMessage());
         }
     }
 
     /**
-     * 멀티캐스트 배치 전송 (성능 최적화 + 동적 배치 크기)
+     * FCM 배치 호출 지연 기록 (요청 ~ 응답)
      */
-    private void sendMulticastBatch(List<String> tokens, String title, String body, String type, Long roomId,
-                                    AtomicInteger totalSuccessCount, AtomicInteger totalFailureCount) {
-        long startTime = System.currentTimeMillis();
-        try {
-            // 멀티캐스트 메시지 생성
-            MulticastMessage.Builder messageBuilder = MulticastMessage.builder()
-                    .addAllTokens(tokens)
-                    .putData("type", type)
-                    .putData("title", title)
-                    .putData("body", body);
-
-            if (roomId != null) {
-                messageBuilder.putData("roomId", roomId.toString());
+    private void recordSend(String type, String outcome, long latencyMs) {
+        meterRegistry.timer("fcm.send.duration", "type", type, "outcome", outcome)
+                .record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    private PushMessage buildPushMessage(List<String> tokens, String title, String body, String type, Long roomId) {
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put("type", type);
+        data.put("title", title);
+        data.put("body", body);
+
+        if (roomId != null) {
+            data.put("roomId", roomId.toString());
+        }
+
+        return new PushMessage(tokens, data);
+    }
+
+    /**
+     * 배치 전송 완료 콜백 - 성능 메트릭 기록, 유효하지 않은 토큰 정리, 발송 성공 수신자 기록
+     */
+    private void handleBatchResponse(List<String> tokens, String type, PushBatchResult result,
+                                     DispatchSource source, long startTime) {
+        int successCount = result.successCount();
+        int failureCount = result.failureCount();
+        long latency = System.currentTimeMillis() - startTime;
+        recordSend(type, failureCount == 0 ? "success" : "partial", latency);
+        meterRegistry.counter("fcm.send.tokens", "type", type, "result", "success").increment(successCount);
+
+        log.info("FCM 알림 발송 완료 - 성공: {}, 실패: {}, 타입: {}, 지연: {}ms, 최적화정보: [{}]",
+                successCount, failureCount, type, latency, batchOptimizer.getOptimizationInfo());
+
+        // 기기 하나라도 성공한 수신자는 발송 완료로 기록 (재전달/재시도 시 제외)
+        Set<Long> deliveredMembers = new HashSet<>();
+        for (TokenResult tokenResult : result.results()) {
+            if (tokenResult.success()) {
+                Long owner = source.tokenOwners().get(tokenResult.token());
+                if (owner != null) {
+                    deliveredMembers.add(owner);
+                }
             }
+        }
+        if (source.event() != null && source.event().type() == NotificationType.CHAT_MESSAGE) {
+            fcmDedupService.markDelivered(source.event().businessKey(), deliveredMembers);
+        }
+
+        // 실패한 토큰들 처리
+        if (failureCount > 0) {
+            List<String> invalidTokens = new ArrayList<>();
+            Set<Long> failedMembers = new HashSet<>();
+            for (TokenResult tokenResult : result.results()) {
+                if (tokenResult.success()) {
+                    continue;
+                }
 
-            MulticastMessage message = messageBuilder.build();
-
-            // 배치 전송 (한 번의 API 호출로 최대 500개 토큰 처리)
-            BatchResponse response = firebaseMessaging.sendEachForMulticast(message);
-
-            int successCount = response.getSuccessCount();
-            int failureCount = response.getFailureCount();
-
-            totalSuccessCount.addAndGet(successCount);
-            totalFailureCount.addAndGet(failureCount);
-
-            // 배치 성능 메트릭 기록
-            long latency = System.currentTimeMillis() - startTime;
-            batchOptimizer.recordBatchResult(tokens.size(), successCount, failureCount, latency);
-
-            log.debug("FCM 배치 전송 완료 - 성공: {}, 실패: {}, 배치크기: {}, 지연: {}ms",
-                    successCount, failureCount, tokens.size(), latency);
-
-            // 실패한 토큰들 처리
-            if (failureCount > 0) {
-                List<SendResponse> responses = response.getResponses();
-                for (int i = 0; i < responses.size(); i++) {
-                    SendResponse sendResponse = responses.get(i);
-                    if (!sendResponse.isSuccessful()) {
-                        String token = tokens.get(i);
-                        FirebaseMessagingException exception = sendResponse.getException();
-
-                        if (exception != null &&
-                                (exception.getMessagingErrorCode() == MessagingErrorCode.UNREGISTERED ||
-                                        exception.getMessagingErrorCode() == MessagingErrorCode.INVALID_ARGUMENT)) {
-                            log.info("유효하지 않은 FCM 토큰 제거: {}",
-                                    token.substring(0, Math.min(20, token.length())) + "...");
-                            fcmTokenService.removeInvalidFcmToken(token);
-                        } else {
-                            log.warn("FCM 토큰 전송 실패 - Token: {}, Error: {}",
-                                    token.substring(0, Math.min(20, token.length())) + "...",
-                                    exception != null ? exception.getMessage() : "Unknown error");
-                        }
+                String token = tokenResult.token();
+                if (tokenResult.failureType() == FailureType.INVALID_TOKEN) {
+                    log.info("유효하지 않은 FCM 토큰 제거: {}",
+                            token.substring(0, Math.min(20, token.length())) + "...");
+                    invalidTokens.add(token);
+                } else {
+                    log.warn("FCM 토큰 전송 실패 - Token: {}, Error: {}",
+                            token.substring(0, Math.min(20, token.length())) + "...",
+                            tokenResult.errorMessage());
+                    Long owner = source.tokenOwners().get(token);
+                    if (owner != null) {
+                        failedMembers.add(owner);
                     }
                 }
             }
+            // 배치 내 무효 토큰은 한 번에 삭제
+            fcmTokenService.removeInvalidFcmTokens(invalidTokens);
+            failureCount -= invalidTokens.size();
+            meterRegistry.counter("fcm.send.tokens", "type", type, "result", "invalid").increment(invalidTokens.size());
+            meterRegistry.counter("fcm.send.tokens", "type", type, "result", "failure").increment(failureCount);
+
+            // 다른 기기로도 받지 못한 수신자만 재시도
+            failedMembers.removeAll(deliveredMembers);
+            retryRecipients(source, failedMembers, "토큰 발송 실패");
+        }
+
+        // 배치 성능 메트릭 기록 (무효 토큰은 혼잡 신호에서 제외)
+        batchOptimizer.recordBatchResult(tokens.size(), successCount, failureCount, latency);
+    }
 
-        } catch (FirebaseMessagingException e) {
-            totalFailureCount.addAndGet(tokens.size());
-
-            // 실패 메트릭 기록
-            long latency = System.currentTimeMillis() - startTime;
-            batchOptimizer.recordBatchResult(tokens.size(), 0, tokens.size(), latency);
-
-            // 재시도 가능한 오류인지 확인
-            if (isRetryableError(e)) {
-                log.warn("FCM 배치 전송 재시도 가능한 오류 - 배치크기: {}, Error: {}",
-                        tokens.size(), e.getMessage());
-                // 재시도 로직 구현 (지수 백오프)
-                retryWithBackoff(tokens, title, body, type, roomId, 1);
-            } else {
-                log.error("FCM 배치 전송 실패 - 배치크기: {}, Error: {}", tokens.size(), e.getMessage());
+    /**
+     * 배치 전송 실패 콜백 - 재시도 가능한 오류는 배치 수신자를 재시도 지연 큐로, 아니면 데드레터로
+     */
+    private void handleBatchFailure(List<String> tokens, String type, DispatchSource source, Throwable t, long startTime) {
+        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        boolean retryable = cause instanceof PushGatewayException gatewayException && gatewayException.isRetryable();
+
+        // 실패 메트릭 기록 (재시도 가능한 오류는 혼잡 신호)
+        long latency = System.currentTimeMillis() - startTime;
+        batchOptimizer.recordBatchFailure(tokens.size(), latency, retryable);
+        recordSend(type, "failure", latency);
+
+        Set<Long> members = ownersOf(tokens, source);
+        if (!retryable) {
+            log.error("FCM 배치 전송 실패 - 배치크기: {}, Error: {}", tokens.size(), t.getMessage(), t);
+            if (source.event() != null && !members.isEmpty()) {
+                fcmRetryQueueService.deadLetter(source.event().withTargetMemberIds(List.copyOf(members)),
+                        "재시도 불가 오류: " + cause.getMessage());
             }
-        } catch (Exception e) {
-            totalFailureCount.addAndGet(tokens.size());
+            return;
+        }
 
-            // 실패 메트릭 기록
-            long latency = System.currentTimeMillis() - startTime;
-            batchOptimizer.recordBatchResult(tokens.size(), 0, tokens.size(), latency);
+        log.warn("FCM 배치 전송 실패, 재시도 큐 이동 - 배치크기: {}, Error: {}", tokens.size(), cause.getMessage());
+        retryRecipients(source, members, "배치 전송 실패: " + cause.getMessage());
+    }
+
+    /**
+     * 실패한 수신자만 대상으로 원본 이벤트를 재시도 지연 큐에 등록 (지터 백오프, 최대 시도 초과 시 데드레터)
+     */
+    private void retryRecipients(DispatchSource source, Set<Long> memberIds, String reason) {
+        if (source.event() == null || memberIds.isEmpty()) {
+            return;
+        }
+        FcmNotificationEvent retry = source.event().withTargetMemberIds(List.copyOf(memberIds));
+        if (!fcmRetryQueueService.scheduleRetry(retry, reason)) {
+            log.error("FCM 실패 수신자 재시도 등록 실패 - EventId: {}, Members: {}", retry.eventId(), memberIds.size());
+        }
+    }
 
-            log.error("FCM 배치 전송 예상치 못한 오류 - 배치크기: {}, Error: {}",
-                    tokens.size(), e.getMessage(), e);
+    private Set<Long> ownersOf(List<String> tokens, DispatchSource source) {
+        Set<Long> owners = new HashSet<>();
+        for (String token : tokens) {
+            Long owner = source.tokenOwners().get(token);
+            if (owner != null) {
+                owners.add(owner);
+            }
         }
+        return owners;
     }
 
     /**
-     * 재시도 가능한 Firebase 오류인지 확인
+     * 배치가 속한 원본 이벤트와 토큰 소유자
      */
-    private boolean isRetryableError(FirebaseMessagingException e) {
-        MessagingErrorCode errorCode = e.getMessagingErrorCode();
-        return errorCode == MessagingErrorCode.INTERNAL ||
-               errorCode == MessagingErrorCode.UNAVAILABLE ||
-               (e.getHttpResponse() != null &&
-                (e.getHttpResponse().getStatusCode() == 500 ||
-                 e.getHttpResponse().getStatusCode() == 503));
-    }
+    private record DispatchSource(FcmNotificationEvent event, Map<String, Long> tokenOwners) {}
 
     /**
      * FCM 토큰 유효성 검사 (강화된 검증)
@@ -256,37 +394,16 @@ public class FcmNotificationService {
     }
 
     /**
-     * 재시도 로직 (지수 백오프)
+     * 종료 시 진행 중인 FCM 요청 완료 대기 (최대 5초)
      */
-    private void retryWithBackoff(List<String> tokens, String title, String body, String type, Long roomId, int retryCount) {
-        final int MAX_RETRIES = 3;
-        if (retryCount > MAX_RETRIES) {
-            log.error("FCM 재시도 한계 초과 - 배치크기: {}, 최종 포기", tokens.size());
-            return;
-        }
-
+    @PreDestroy
+    public void awaitInFlight() {
         try {
-            // 지수 백오프: 2^retryCount 초 대기
-            long delayMs = (long) Math.pow(2, retryCount) * 1000;
-            Thread.sleep(delayMs);
-
-            log.info("FCM 재시도 시도 {}/{} - 배치크기: {}, 대기시간: {}ms",
-                    retryCount, MAX_RETRIES, tokens.size(), delayMs);
-
-            // 재시도 실행
-            sendMulticastBatch(tokens, title, body, type, roomId,
-                             new AtomicInteger(0), new AtomicInteger(0));
-
+            if (!batchOptimizer.awaitIdle(5, TimeUnit.SECONDS)) {
+                log.warn("종료 시 완료되지 않은 FCM 요청 {}건", batchOptimizer.getInFlight());
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            log.warn("FCM 재시도 중 인터럽트 발생");
-        } catch (Exception e) {
-            if (e instanceof FirebaseMessagingException && isRetryableError((FirebaseMessagingException) e)) {
-                log.warn("FCM 재시도 {}회차 실패, 다시 시도 - Error: {}", retryCount, e.getMessage());
-                retryWithBackoff(tokens, title, body, type, roomId, retryCount + 1);
-            } else {
-                log.error("FCM 재시도 불가능한 오류 - 재시도 중단: {}", e.getMessage());
-            }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,21 +1,41 @@
 package com.project.catxi.fcm.service;
 
+import com.project.catxi.chat.service.PresenceService;
+import com.project.catxi.fcm.dto.FcmBacklog;
+import com.project.catxi.fcm.dto.FcmLane;
 import com.project.catxi.fcm.dto.FcmNotificationEvent;
+import com.project.catxi.fcm.dto.FcmNotificationEvent.NotificationType;
+import com.project.catxi.fcm.dto.FcmQueuedEvent;
 import com.project.catxi.member.domain.Member;
 import com.project.catxi.member.repository.MemberRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -26,9 +46,46 @@ public class FcmQueueConsumer {
     private final FcmQueueService fcmQueueService;
     private final MemberRepository memberRepository;
     private final FcmNotificationService fcmNotificationService;
-    private final FcmActiveStatusService fcmActiveStatusService;
+    private final PresenceService presenceService;
+    private final FcmDigestService fcmDigestService;
+    private final FcmRetryQueueService fcmRetryQueueService;
+    private final FcmDedupService fcmDedupService;
+    private final MeterRegistry meterRegistry;
     
     private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong lastReclaimAt = new AtomicLong(0);
+
+    // 실행 중인 컨슈머 루프별 활성 플래그 (false로 바꾸면 현재 읽기 후 종료)
+    private final Deque<AtomicBoolean> workers = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger workerSeq = new AtomicInteger(0);
+    private final AtomicReference<FcmBacklog> lastBacklog = new AtomicReference<>(FcmBacklog.EMPTY);
+    private long lastScaleUpAt = 0;
+    private long idleSince = 0;
+
+    @Value("${fcm.queue.reclaim-interval-ms:10000}")
+    private long reclaimIntervalMs;
+
+    @Value("${fcm.queue.batch-size:50}")
+    private int batchSize;
+
+    @Value("${fcm.consumer.min-workers:2}")
+    private int minWorkers;
+
+    @Value("${fcm.consumer.max-workers:8}")
+    private int maxWorkers;
+
+    @Value("${fcm.consumer.scale-up-age-ms:1000}")
+    private long scaleUpAgeMs;
+
+    @Value("${fcm.consumer.scale-up-cooldown-ms:2000}")
+    private long scaleUpCooldownMs;
+
+    @Value("${fcm.consumer.scale-down-age-ms:200}")
+    private long scaleDownAgeMs;
+
+    @Value("${fcm.consumer.scale-down-stable-ms:30000}")
+    private long scaleDownStableMs;
+
     private ExecutorService consumerExecutor;
     
     @EventListener(ApplicationReadyEvent.class)
@@ -36,55 +93,109 @@ public class FcmQueueConsumer {
         log.info("FCM 큐 컨슈머 시작 - 모든 서버에서 큐 처리");
         running.set(true);
 
-        // 최적화된 스레드 풀 설정
-        int corePoolSize = 2;  // 최소 스레드 수
-        int maximumPoolSize = 8; // 최대 스레드 수 (CPU 집약적 작업 고려)
-        long keepAliveTime = 60L; // 유휴 스레드 유지 시간
-
-        consumerExecutor = new ThreadPoolExecutor(
-            corePoolSize,
-            maximumPoolSize,
-            keepAliveTime,
-            TimeUnit.SECONDS,
-            new LinkedBlockingQueue<>(100), // 큐 크기 제한으로 백프레셔 방지
-            r -> {
-                Thread t = new Thread(r, "FCM-Consumer-" + System.currentTimeMillis());
-                t.setDaemon(false);
-                t.setPriority(Thread.NORM_PRIORITY);
-                return t;
-            },
-            new ThreadPoolExecutor.CallerRunsPolicy() // 큐 포화 시 호출 스레드에서 실행
-        );
-
-        // 초기 코어 스레드 시작
-        for (int i = 0; i < corePoolSize; i++) {
-            consumerExecutor.submit(this::consumeEvents);
+        // 컨슈머 루프 수는 오토스케일러가 min~max 사이에서 관리 (스레드는 필요할 때 생성, 60초 유휴 시 회수)
+        consumerExecutor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "FCM-Consumer-" + workerSeq.incrementAndGet());
+            t.setDaemon(false);
+            t.setPriority(Thread.NORM_PRIORITY);
+            return t;
+        });
+
+        Gauge.builder("fcm.consumer.workers", workers, Deque::size)
+                .description("실행 중인 FCM 컨슈머 루프 수")
+                .register(meterRegistry);
+        Gauge.builder("fcm.queue.backlog", lastBacklog, ref -> ref.get().undelivered())
+                .description("컨슈머 그룹이 아직 읽지 않은 FCM 이벤트 수 (전체 레인)")
+                .register(meterRegistry);
+        Gauge.builder("fcm.queue.oldest_age", lastBacklog, ref -> ref.get().oldestAgeMs())
+                .description("가장 오래된 미전달 FCM 이벤트의 대기 시간")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        addWorkers(minWorkers);
+
+        log.info("FCM 큐 컨슈머 오토스케일링 활성화 - Min: {}, Max: {}, ScaleUpAge: {}ms",
+                minWorkers, maxWorkers, scaleUpAgeMs);
+    }
+
+    /**
+     * 큐 깊이와 가장 오래된 이벤트 대기 시간으로 컨슈머 루프 수 조정
+     * - 확장: 미전달 수가 루프당 배치 크기를 넘거나 대기 시간이 scale-up-age 초과 시 2배씩 (쿨다운 적용)
+     * - 축소: 미전달 수가 배치 크기 미만이고 대기 시간이 scale-down-age 미만인 상태가 scale-down-stable 동안 유지되면 1개씩
+     * 확장/축소 기준 사이 구간에서는 현재 수 유지 (히스테리시스)
+     */
+    @Scheduled(fixedDelayString = "${fcm.consumer.scale-interval-ms:1000}")
+    public void autoscale() {
+        if (!running.get()) {
+            return;
         }
 
-        log.info("FCM 큐 컨슈머 최적화 완료 - Core: {}, Max: {}, Queue: 100",
-                corePoolSize, maximumPoolSize);
+        FcmBacklog backlog = fcmQueueService.getBacklog();
+        lastBacklog.set(backlog);
+
+        int current = workers.size();
+        long now = System.currentTimeMillis();
+        boolean pressured = backlog.undelivered() > (long) current * batchSize
+                || backlog.oldestAgeMs() > scaleUpAgeMs;
+        boolean idle = backlog.undelivered() < batchSize && backlog.oldestAgeMs() < scaleDownAgeMs;
+
+        if (pressured) {
+            idleSince = 0;
+            if (current < maxWorkers && now - lastScaleUpAt >= scaleUpCooldownMs) {
+                int target = Math.min(maxWorkers, Math.max(current + 1, current * 2));
+                addWorkers(target - current);
+                lastScaleUpAt = now;
+                meterRegistry.counter("fcm.consumer.scaling", "direction", "up").increment(target - current);
+                log.info("FCM 컨슈머 확장 - {} -> {}, 미전달: {}, 최대 대기: {}ms",
+                        current, target, backlog.undelivered(), backlog.oldestAgeMs());
+            }
+        } else if (idle) {
+            if (idleSince == 0) {
+                idleSince = now;
+            } else if (current > minWorkers && now - idleSince >= scaleDownStableMs) {
+                retireWorker();
+                idleSince = now; // 다음 축소도 안정 구간을 다시 기다림
+                meterRegistry.counter("fcm.consumer.scaling", "direction", "down").increment();
+                log.info("FCM 컨슈머 축소 - {} -> {}", current, current - 1);
+            }
+        } else {
+            idleSince = 0;
+        }
+    }
+
+    private void addWorkers(int count) {
+        for (int i = 0; i < count; i++) {
+            AtomicBoolean active = new AtomicBoolean(true);
+            workers.addLast(active);
+            consumerExecutor.submit(() -> consumeEvents(active));
+        }
+    }
+
+    /**
+     * 가장 최근에 추가된 루프 종료 - 진행 중인 블로킹 읽기와 배치 처리는 마치고 빠져나옴
+     */
+    private void retireWorker() {
+        AtomicBoolean active = workers.pollLast();
+        if (active != null) {
+            active.set(false);
+        }
     }
     
-    public void consumeEvents() {
-        log.info("FCM 큐 컨슈머 이벤트 처리 시작");
+    private void consumeEvents(AtomicBoolean active) {
+        log.info("FCM 큐 컨슈머 이벤트 처리 시작 - BatchSize: {}", batchSize);
 
-        while (running.get()) {
+        while (running.get() && active.get()) {
             try {
-                // 큐에서 이벤트 하나 가져오기 (블로킹)
-                FcmNotificationEvent event = fcmQueueService.dequeueFcmEvent();
+                // 주기적으로 유휴 pending 이벤트 회수 (인스턴스당 한 스레드만 수행)
+                if (isReclaimDue()) {
+                    handleBatch(fcmQueueService.reclaimStaleEvents());
+                }
 
-                if (event != null) {
-                    boolean success = processNotification(event);
+                // 스트림에서 이벤트를 배치로 가져오기 (블로킹, 1회 왕복)
+                List<FcmQueuedEvent> batch = fcmQueueService.dequeueFcmEvents(batchSize, 3);
 
-                    if (success) {
-                        // 성공 시에만 처리 완료 마크
-                        fcmQueueService.markEventCompleted(event.businessKey());
-                        log.debug("FCM 이벤트 처리 성공 - EventId: {}", event.eventId());
-                    } else {
-                        // 실패 시 재큐잉은 하지 않고 로그만 (중복 방지를 위해)
-                        log.error("FCM 이벤트 처리 실패, 재시도 안함 - EventId: {}", event.eventId());
-                        // processing 키는 TTL로 자동 만료되어 나중에 재시도 가능
-                    }
+                if (!batch.isEmpty()) {
+                    handleBatch(batch);
                 }
 
             } catch (Exception e) {
@@ -100,45 +211,194 @@ public class FcmQueueConsumer {
             }
         }
 
+        workers.remove(active);
         log.info("FCM 큐 컨슈머 종료");
     }
     
-    private boolean processNotification(FcmNotificationEvent event) {
+    /**
+     * 이벤트 배치 처리 - 대상 사용자 1회 조회, 활성 상태 1회 조회 후 우선순위 레인별로 발송
+     * 실패한 이벤트는 재시도 지연 큐로 넘긴 뒤 일괄 ACK (지연 큐 등록 실패 시 pending에 남아 회수 후 재처리됨)
+     *
+     * @return 처리 완료(ACK)된 이벤트 수
+     */
+    private int handleBatch(List<FcmQueuedEvent> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // 레인 마감 시간이 지난 이벤트는 발송하지 않고 폐기
+        List<FcmQueuedEvent> completed = new ArrayList<>(batch.size());
+        List<FcmQueuedEvent> live = new ArrayList<>(batch.size());
+        for (FcmQueuedEvent queued : batch) {
+            meterRegistry.counter("fcm.events.dequeued",
+                    "type", queued.event().type().name(), "lane", queued.lane().getTag()).increment();
+            if (queued.isExpired()) {
+                log.warn("FCM 이벤트 마감 시간 초과, 폐기 - EventId: {}, Lane: {}, Age: {}ms",
+                        queued.event().eventId(), queued.lane().getTag(), queued.age().toMillis());
+                meterRegistry.counter("fcm.lane.expired", "lane", queued.lane().getTag()).increment();
+                completed.add(queued);
+            } else {
+                meterRegistry.timer("fcm.lane.latency", "lane", queued.lane().getTag()).record(queued.age());
+                live.add(queued);
+            }
+        }
+        if (live.isEmpty()) {
+            fcmQueueService.acknowledgeAll(completed);
+            return completed.size();
+        }
+
+        Map<Long, Member> members = loadTargetMembers(live);
+        List<PreparedEvent> prepared = prepareEvents(live, members);
+
+        // 우선순위 레인 순으로 묶어서 발송 (critical -> normal -> bulk)
+        Map<FcmLane, List<PreparedEvent>> byLane = prepared.stream()
+                .collect(Collectors.groupingBy(p -> p.queued().lane(),
+                        () -> new EnumMap<>(FcmLane.class), Collectors.toList()));
+
+        byLane.forEach((lane, events) -> {
+            for (PreparedEvent preparedEvent : events) {
+                String type = preparedEvent.queued().event().type().name();
+                long startedAt = System.nanoTime();
+                boolean processed = processNotification(preparedEvent);
+                meterRegistry.timer("fcm.events.processing", "type", type, "outcome", processed ? "success" : "failure")
+                        .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+                if (processed) {
+                    // 생성 시각부터 발송 요청(또는 다이제스트 적재)까지의 지연
+                    meterRegistry.timer("fcm.pipeline.latency", "type", type, "lane", lane.getTag())
+                            .record(preparedEvent.queued().age());
+                    completed.add(preparedEvent.queued());
+                } else if (fcmRetryQueueService.scheduleRetry(preparedEvent.queued().event(), "알림 처리 실패")) {
+                    // 지연 큐로 넘겼으므로 원본은 ACK (재시도 대기가 워커를 점유하지 않음)
+                    completed.add(preparedEvent.queued());
+                }
+            }
+        });
+
+        fcmQueueService.acknowledgeAll(completed);
+
+        if (completed.size() < batch.size()) {
+            log.error("FCM 배치 일부 재시도 예약 실패, 회수 후 재처리 예정 - 전체: {}, 완료: {}",
+                    batch.size(), completed.size());
+        } else {
+            log.debug("FCM 배치 처리 완료 - 이벤트: {}, 대상 사용자: {}", live.size(), members.size());
+        }
+        return completed.size();
+    }
+
+    /**
+     * 배치 내 모든 이벤트의 대상 사용자를 한 번의 쿼리로 조회
+     */
+    private Map<Long, Member> loadTargetMembers(List<FcmQueuedEvent> batch) {
+        Set<Long> memberIds = batch.stream()
+                .flatMap(queued -> queued.event().targetMemberIds().stream())
+                .collect(Collectors.toSet());
+        if (memberIds.isEmpty()) {
+            return Map.of();
+        }
+        return memberRepository.findAllById(memberIds).stream()
+                .collect(Collectors.toMap(Member::getId, Function.identity()));
+    }
+
+    /**
+     * 이벤트별 대상 사용자와 채팅방을 정리하고, 배치 전체의 활성 상태를 한 번에 확인
+     */
+    private List<PreparedEvent> prepareEvents(List<FcmQueuedEvent> batch, Map<Long, Member> members) {
+        List<Long> presenceMemberIds = new ArrayList<>();
+        List<Long> presenceRoomIds = new ArrayList<>();
+        List<List<Member>> targetsPerEvent = new ArrayList<>(batch.size());
+        List<Long> roomIdPerEvent = new ArrayList<>(batch.size());
+
+        for (FcmQueuedEvent queued : batch) {
+            FcmNotificationEvent event = queued.event();
+            List<Member> targets = event.targetMemberIds().stream()
+                    .map(members::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+
+            // 조회된 사용자 수가 예상보다 적은 경우 경고
+            if (targets.size() != event.targetMemberIds().size()) {
+                log.warn("일부 사용자 조회 실패 - EventId: {}, Expected: {}, Found: {}",
+                        event.eventId(), event.targetMemberIds().size(), targets.size());
+            }
+
+            // 채팅/준비요청 알림은 채팅방 활성 사용자 제외 대상
+            Long roomId = event.type() == NotificationType.SYSTEM_NOTIFICATION ? null : event.roomId();
+            if (roomId != null) {
+                for (Member member : targets) {
+                    presenceMemberIds.add(member.getId());
+                    presenceRoomIds.add(roomId);
+                }
+            }
+            targetsPerEvent.add(targets);
+            roomIdPerEvent.add(roomId);
+        }
+
+        BitSet activeFlags = presenceService.findActiveMembers(presenceMemberIds, presenceRoomIds);
+
+        List<PreparedEvent> prepared = new ArrayList<>(batch.size());
+        int offset = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            List<Member> targets = targetsPerEvent.get(i);
+            Long roomId = roomIdPerEvent.get(i);
+            List<Member> inactiveTargets = targets;
+
+            if (roomId != null) {
+                inactiveTargets = new ArrayList<>(targets.size());
+                for (Member member : targets) {
+                    if (activeFlags.get(offset++)) {
+                        log.debug("사용자가 채팅방에 활성 상태 - 알림 발송 안함, MemberId: {}, RoomId: {}",
+                                member.getId(), roomId);
+                    } else {
+                        inactiveTargets.add(member);
+                    }
+                }
+                int suppressed = targets.size() - inactiveTargets.size();
+                if (suppressed > 0) {
+                    meterRegistry.counter("fcm.recipients.suppressed",
+                            "type", batch.get(i).event().type().name(), "reason", "presence").increment(suppressed);
+                }
+            }
+            prepared.add(new PreparedEvent(batch.get(i), roomId, targets, inactiveTargets));
+        }
+        return prepared;
+    }
+
+    private boolean isReclaimDue() {
+        long now = System.currentTimeMillis();
+        long last = lastReclaimAt.get();
+        return now - last >= reclaimIntervalMs && lastReclaimAt.compareAndSet(last, now);
+    }
+    
+    private boolean processNotification(PreparedEvent prepared) {
+        FcmNotificationEvent event = prepared.queued().event();
         try {
-            log.info("FCM 큐 메시지 처리 시작 - EventId: {}, BusinessKey: {}",
-                    event.eventId(), event.businessKey());
+            log.debug("FCM 큐 메시지 처리 시작 - EventId: {}, BusinessKey: {}, Deliveries: {}",
+                    event.eventId(), event.businessKey(), prepared.queued().deliveryCount());
             
-            // 대상 사용자 조회
-            List<Member> targetMembers = memberRepository.findAllById(event.targetMemberIds());
-            
-            if (targetMembers.isEmpty()) {
+            if (prepared.targets().isEmpty()) {
+                // 재처리해도 결과가 같으므로 ACK 처리
                 log.warn("FCM 알림 대상 사용자 없음 - EventId: {}", event.eventId());
-                return false;
-            }
-            
-            // 조회된 사용자 수가 예상보다 적은 경우 경고
-            if (targetMembers.size() != event.targetMemberIds().size()) {
-                log.warn("일부 사용자 조회 실패 - EventId: {}, Expected: {}, Found: {}", 
-                        event.eventId(), event.targetMemberIds().size(), targetMembers.size());
+                return true;
             }
             
             // 알림 타입별 처리
             switch (event.type()) {
                 case CHAT_MESSAGE:
-                    processChatNotification(event, targetMembers.get(0));
+                    processChatNotification(event, prepared);
                     break;
                 case READY_REQUEST:
-                    processReadyRequestNotification(event, targetMembers);
+                    processReadyRequestNotification(event, prepared);
                     break;
                 case SYSTEM_NOTIFICATION:
-                    processSystemNotification(event, targetMembers);
+                    processSystemNotification(event, prepared.targets());
                     break;
                 default:
                     log.warn("알 수 없는 FCM 이벤트 타입 - EventId: {}, Type: {}", 
                             event.eventId(), event.type());
             }
             
-            log.info("FCM 큐 메시지 처리 완료 - EventId: {}, BusinessKey: {}", 
+            log.debug("FCM 큐 메시지 처리 완료 - EventId: {}, BusinessKey: {}", 
                     event.eventId(), event.businessKey());
             
             return true; // 처리 성공
@@ -150,87 +410,56 @@ public class FcmQueueConsumer {
         }
     }
     
-    /**
-     * 이벤트에서 Room ID 추출
-     */
-    private Long extractRoomIdFromEvent(FcmNotificationEvent event) {
-        try {
-            // BusinessKey에서 추출: "chat:168:2:1821" -> 168
-            String businessKey = event.businessKey();
-            if (businessKey != null && businessKey.startsWith("chat:")) {
-                String[] parts = businessKey.split(":");
-                if (parts.length >= 2) {
-                    return Long.parseLong(parts[1]);
-                }
-            }
-            
-            // Data에서 추출
-            String roomIdStr = event.data().get("roomId");
-            if (roomIdStr != null) {
-                return Long.parseLong(roomIdStr);
-            }
-            
-            return null;
-        } catch (Exception e) {
-            log.warn("Room ID 추출 실패 - EventId: {}, BusinessKey: {}", 
-                    event.eventId(), event.businessKey(), e);
-            return null;
-        }
-    }
-    
-    private void processChatNotification(FcmNotificationEvent event, Member targetMember) {
-        // 채팅방 ID 추출
-        Long roomId = extractRoomIdFromEvent(event);
+    private void processChatNotification(FcmNotificationEvent event, PreparedEvent prepared) {
+        Long roomId = prepared.roomId();
         if (roomId == null) {
             log.warn("채팅 알림에서 룸 ID를 찾을 수 없음 - EventId: {}", event.eventId());
             return;
         }
 
-        // 활성 상태 확인 - 활성 상태면 알림 발송하지 않음
-        boolean isActive = fcmActiveStatusService.isUserActiveInRoom(targetMember.getId(), roomId);
-        if (isActive) {
-            log.debug("사용자가 채팅방에 활성 상태 - 알림 발송 안함, MemberId: {}, RoomId: {}",
-                    targetMember.getId(), roomId);
+        List<Long> inactiveMemberIds = prepared.inactiveTargets().stream()
+                .map(Member::getId)
+                .toList();
+
+        // 수신자별 디듀프 - 이미 발송에 성공한 수신자 제외 (재전달 대비, 기록은 발송 성공 후)
+        List<Long> recipientIds = fcmDedupService.filterUndeliveredRecipients(event.businessKey(), inactiveMemberIds);
+        if (recipientIds.isEmpty()) {
+            log.debug("채팅 알림 발송 대상 없음 - EventId: {}, RoomId: {}", event.eventId(), roomId);
             return;
         }
+        List<Member> recipients = prepared.inactiveTargets().stream()
+                .filter(member -> recipientIds.contains(member.getId()))
+                .toList();
 
-        // 채팅 메시지에서 발송자 닉네임 추출 (body에서 파싱)
-        String body = event.body(); // "닉네임: 메시지" 형태
-        String[] parts = body.split(": ", 2);
-        String senderNickname = parts.length > 0 ? parts[0] : "Unknown";
-        String message = parts.length > 1 ? parts[1] : body;
+        // 표시 문자열은 발송 시점에 렌더링 (이벤트에는 발송자 닉네임과 메시지 원문만 보관)
+        String senderNickname = event.senderNickname() != null ? event.senderNickname() : "Unknown";
+        String message = event.message() != null ? event.message() : "";
 
-        log.debug("비활성 사용자에게 채팅 알림 발송 - MemberId: {}, RoomId: {}",
-                targetMember.getId(), roomId);
-        fcmNotificationService.sendChatNotificationSync(targetMember, senderNickname, message);
+        // 다이제스트에 누적 (윈도우 후 사용자별 1건으로 발송), 실패 시 즉시 발송
+        // 재시도 이벤트는 다이제스트를 거치지 않음 (재시도 횟수가 이벤트에 누적되도록)
+        if (event.retryCount() == 0 && fcmDigestService.accumulate(recipientIds, roomId, senderNickname, message)) {
+            // 다이제스트에 인계된 수신자는 이후 다이제스트가 발송 책임
+            fcmDedupService.markDelivered(event.businessKey(), recipientIds);
+            return;
+        }
+
+        log.debug("비활성 사용자들에게 채팅 알림 발송 - 전체: {}, 발송: {}, RoomId: {}",
+                prepared.targets().size(), recipients.size(), roomId);
+        fcmNotificationService.sendChatNotificationSync(event, recipients, senderNickname, message);
     }
     
-    private void processReadyRequestNotification(FcmNotificationEvent event, List<Member> targetMembers) {
-        String roomIdStr = event.data().get("roomId");
-        Long roomId = roomIdStr != null ? Long.parseLong(roomIdStr) : null;
-
+    private void processReadyRequestNotification(FcmNotificationEvent event, PreparedEvent prepared) {
+        Long roomId = prepared.roomId();
         if (roomId == null) {
             log.warn("준비요청 알림에서 룸 ID를 찾을 수 없음 - EventId: {}", event.eventId());
             return;
         }
 
-        // 활성 상태가 아닌 사용자만 필터링
-        List<Member> inactiveMembers = targetMembers.stream()
-                .filter(member -> {
-                    boolean isActive = fcmActiveStatusService.isUserActiveInRoom(member.getId(), roomId);
-                    if (isActive) {
-                        log.debug("사용자가 채팅방에 활성 상태 - 준비요청 알림 발송 안함, MemberId: {}, RoomId: {}",
-                                member.getId(), roomId);
-                        return false;
-                    }
-                    return true;
-                })
-                .toList();
-
+        List<Member> inactiveMembers = prepared.inactiveTargets();
         if (!inactiveMembers.isEmpty()) {
             log.debug("비활성 사용자들에게 준비요청 알림 발송 - 전체: {}, 비활성: {}, RoomId: {}",
-                    targetMembers.size(), inactiveMembers.size(), roomId);
-            fcmNotificationService.sendReadyRequestNotificationSync(inactiveMembers, roomId);
+                    prepared.targets().size(), inactiveMembers.size(), roomId);
+            fcmNotificationService.sendReadyRequestNotificationSync(event, inactiveMembers, roomId);
         } else {
             log.debug("모든 사용자가 활성 상태 - 준비요청 알림 발송 안함, RoomId: {}", roomId);
         }
@@ -241,11 +470,22 @@ public class FcmQueueConsumer {
         log.info("시스템 알림 처리 - EventId: {}, Targets: {}", 
                 event.eventId(), targetMembers.size());
     }
+
+    /**
+     * 배치 처리용 이벤트 - 조회된 대상 사용자와 채팅방 비활성 사용자
+     */
+    private record PreparedEvent(
+            FcmQueuedEvent queued,
+            Long roomId,
+            List<Member> targets,
+            List<Member> inactiveTargets
+    ) {}
     
     @PreDestroy
     public void stopConsumer() {
         log.info("FCM 큐 컨슈머 종료 요청");
         running.set(false);
+        workers.forEach(active -> active.set(false));
         
         // 대기 중인 FCM 메시지 처리
         processPendingMessages();
@@ -264,6 +504,9 @@ public class FcmQueueConsumer {
                 Thread.currentThread().interrupt();
             }
         }
+
+        // 처리 중 이벤트가 없으면 컨슈머 그룹에서 제거
+        fcmQueueService.removeConsumerIfIdle();
         log.info("FCM 큐 컨슈머 종료 완료");
     }
     
@@ -282,24 +525,19 @@ public class FcmQueueConsumer {
                    (System.currentTimeMillis() - startTime) < MAX_SHUTDOWN_PROCESSING_TIME_MS) {
 
                 // 논블로킹으로 메시지 가져오기 (타임아웃 1초)
-                FcmNotificationEvent event = fcmQueueService.dequeueFcmEventWithTimeout(1);
+                List<FcmQueuedEvent> batch = fcmQueueService.dequeueFcmEvents(
+                        Math.min(batchSize, MAX_MESSAGES_TO_PROCESS - processedCount), 1);
 
-                if (event == null) {
+                if (batch.isEmpty()) {
                     // 더 이상 처리할 메시지가 없음
                     break;
                 }
 
                 try {
-                    boolean success = processNotification(event);
-                    if (success) {
-                        fcmQueueService.markEventCompleted(event.businessKey());
-                        processedCount++;
-                        log.debug("종료 시 FCM 메시지 처리 완료 - EventId: {}", event.eventId());
-                    } else {
-                        log.error("종료 시 FCM 메시지 처리 실패 - EventId: {}", event.eventId());
-                    }
+                    processedCount += handleBatch(batch);
                 } catch (Exception e) {
-                    log.error("종료 시 FCM 메시지 처리 중 예외 - EventId: {}", event.eventId(), e);
+                    log.error("종료 시 FCM 메시지 배치 처리 중 예외 - Count: {}", batch.size(), e);
+                    break;
                 }
             }
 
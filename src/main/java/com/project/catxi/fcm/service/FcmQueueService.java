@@ -1,62 +1,241 @@
 package com.project.catxi.fcm.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.project.catxi.fcm.dto.FcmBacklog;
+import com.project.catxi.fcm.dto.FcmLane;
 import com.project.catxi.fcm.dto.FcmNotificationEvent;
+import com.project.catxi.fcm.dto.FcmQueuedEvent;
 import com.project.catxi.fcm.util.FcmBusinessKeyGenerator;
+import com.project.catxi.fcm.util.FcmEventCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @Service
 public class FcmQueueService {
     
-    private static final String FCM_QUEUE_KEY = "fcm:queue";
-    private static final String FCM_PROCESSING_KEY_PREFIX = "fcm:processing:";
-    private static final String FCM_DEDUP_KEY_PREFIX = "fcm:dedup:";
-    private static final int PROCESSING_TTL_SECONDS = 60;
-    private static final int DEDUP_TTL_SECONDS = 300; // 5분 디듀프
-    
-    // Lua 스크립트: processing 키와 별도로 dedup 키도 설정 (이중 방어)
-    private static final String ENQUEUE_SCRIPT = 
-        "local processing_result = redis.call('SET', KEYS[2], '1', 'NX', 'EX', ARGV[2]) " +
-        "if processing_result then " +
-        "redis.call('SET', KEYS[3], '1', 'NX', 'EX', ARGV[3]) " +
-        "redis.call('rpush', KEYS[1], ARGV[1]) " +
-        "return 1 " +
-        "else " +
-        "return 0 " +
-        "end";
+    private static final String LEGACY_QUEUE_KEY = "fcm:queue"; // 리스트 기반 구버전 큐
+    private static final String CONSUMER_GROUP = "fcm-consumers";
+    static final String PAYLOAD_FIELD = "payload";
+    
+    // Lua 스크립트: 윈도우 내 디듀프 버킷(KEYS[2..])에 지문이 없을 때만 현재 버킷에 기록 후 스트림 추가
+    private static final String ENQUEUE_SCRIPT =
+        "for i = 2, #KEYS do " +
+        "if redis.call('SISMEMBER', KEYS[i], ARGV[3]) == 1 then return 0 end " +
+        "end " +
+        "redis.call('SADD', KEYS[2], ARGV[3]) " +
+        "redis.call('EXPIRE', KEYS[2], ARGV[2], 'NX') " +
+        "redis.call('XADD', KEYS[1], '*', 'payload', ARGV[1]) " +
+        "return 1";
+
+    // Lua 스크립트: ACK 후 스트림에서 삭제 (여러 건 일괄)
+    private static final String ACK_SCRIPT =
+        "for i = 2, #ARGV do " +
+        "redis.call('XACK', KEYS[1], ARGV[1], ARGV[i]) " +
+        "redis.call('XDEL', KEYS[1], ARGV[i]) " +
+        "end " +
+        "return #ARGV - 1";
+
+    // Lua 스크립트: XAUTOCLAIM 후 [다음 커서, (id, payload, 전달 횟수)...] 형태로 평탄화
+    private static final String RECLAIM_SCRIPT =
+        "local res = redis.call('XAUTOCLAIM', KEYS[1], ARGV[1], ARGV[2], ARGV[3], ARGV[4], 'COUNT', ARGV[5]) " +
+        "local out = {res[1]} " +
+        "for _, entry in ipairs(res[2]) do " +
+        "local id = entry[1] " +
+        "local fields = entry[2] " +
+        "local payload = '' " +
+        "for i = 1, #fields, 2 do " +
+        "if fields[i] == 'payload' then payload = fields[i + 1] end " +
+        "end " +
+        "local info = redis.call('XPENDING', KEYS[1], ARGV[1], id, id, 1) " +
+        "local deliveries = 1 " +
+        "if info[1] then deliveries = info[1][4] end " +
+        "table.insert(out, id) " +
+        "table.insert(out, payload) " +
+        "table.insert(out, tostring(deliveries)) " +
+        "end " +
+        "return out";
+
+    // Lua 스크립트: 구버전 리스트 큐에 남은 이벤트를 스트림으로 이관
+    private static final String MIGRATE_LEGACY_SCRIPT =
+        "local moved = 0 " +
+        "local item = redis.call('LPOP', KEYS[1]) " +
+        "while item do " +
+        "redis.call('XADD', KEYS[2], '*', 'payload', item) " +
+        "moved = moved + 1 " +
+        "item = redis.call('LPOP', KEYS[1]) " +
+        "end " +
+        "return moved";
+
+    // Lua 스크립트: 레인별 [미전달 수, 가장 오래된 미전달 이벤트 대기 ms] (XLEN - pending, last-delivered-id 다음 항목)
+    private static final String BACKLOG_SCRIPT =
+        "local t = redis.call('TIME') " +
+        "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) " +
+        "local out = {} " +
+        "for i = 1, #KEYS do " +
+        "local undelivered = 0 " +
+        "local age = 0 " +
+        "if redis.call('EXISTS', KEYS[i]) == 1 then " +
+        "local lastId = nil " +
+        "local pending = 0 " +
+        "for _, g in ipairs(redis.call('XINFO', 'GROUPS', KEYS[i])) do " +
+        "local name, last, pend " +
+        "for j = 1, #g, 2 do " +
+        "if g[j] == 'name' then name = g[j + 1] " +
+        "elseif g[j] == 'last-delivered-id' then last = g[j + 1] " +
+        "elseif g[j] == 'pending' then pend = g[j + 1] end " +
+        "end " +
+        "if name == ARGV[1] then lastId = last pending = pend end " +
+        "end " +
+        "undelivered = math.max(0, redis.call('XLEN', KEYS[i]) - pending) " +
+        "if undelivered > 0 and lastId then " +
+        "local nxt = redis.call('XRANGE', KEYS[i], '(' .. lastId, '+', 'COUNT', 1) " +
+        "if nxt[1] then age = math.max(0, now - tonumber(string.match(nxt[1][1], '^(%d+)'))) end " +
+        "end " +
+        "end " +
+        "table.insert(out, undelivered) " +
+        "table.insert(out, age) " +
+        "end " +
+        "return out";
     
     private final @Qualifier("chatPubSub") StringRedisTemplate redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final FcmEventCodec fcmEventCodec;
     private final FcmBusinessKeyGenerator fcmBusinessKeyGenerator;
+    private final FcmRetryQueueService fcmRetryQueueService;
+    private final FcmDedupService fcmDedupService;
     
     private final DefaultRedisScript<Long> enqueueScript;
+    private final DefaultRedisScript<Long> ackScript;
+    private final DefaultRedisScript<Long> migrateLegacyScript;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> reclaimScript;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> backlogScript;
+    
+    // 서버 인스턴스별 컨슈머 이름 (재시작 시 새 이름 - 이전 pending은 회수로 처리)
+    private final String consumerName = resolveConsumerName();
+    private final Map<FcmLane, AtomicReference<String>> reclaimCursors = new EnumMap<>(FcmLane.class);
+    
+    private final long reclaimIdleMs;
+    private final int reclaimBatchSize;
+    private final long maxDeliveries;
+    
+    private final MeterRegistry meterRegistry;
+    private final Counter redeliveredCounter;
+    private final Counter deadLetteredCounter;
     
     // 생성자에서 스크립트 초기화
     public FcmQueueService(
             @Qualifier("chatPubSub") StringRedisTemplate redisTemplate,
-            ObjectMapper objectMapper,
-            FcmBusinessKeyGenerator fcmBusinessKeyGenerator) {
+            FcmEventCodec fcmEventCodec,
+            FcmBusinessKeyGenerator fcmBusinessKeyGenerator,
+            FcmRetryQueueService fcmRetryQueueService,
+            FcmDedupService fcmDedupService,
+            MeterRegistry meterRegistry,
+            @Value("${fcm.queue.reclaim-idle-ms:60000}") long reclaimIdleMs,
+            @Value("${fcm.queue.reclaim-batch-size:20}") int reclaimBatchSize,
+            @Value("${fcm.queue.max-deliveries:5}") long maxDeliveries) {
         this.redisTemplate = redisTemplate;
+        this.fcmEventCodec = fcmEventCodec;
         this.fcmBusinessKeyGenerator = fcmBusinessKeyGenerator;
-
-        // ObjectMapper 성능 최적화 (FCM 전용)
-        this.objectMapper = objectMapper.copy()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.fcmRetryQueueService = fcmRetryQueueService;
+        this.fcmDedupService = fcmDedupService;
+        this.meterRegistry = meterRegistry;
+        this.reclaimIdleMs = reclaimIdleMs;
+        this.reclaimBatchSize = reclaimBatchSize;
+        this.maxDeliveries = maxDeliveries;
 
         // Lua 스크립트 초기화 및 최적화
         this.enqueueScript = new DefaultRedisScript<>();
         this.enqueueScript.setScriptText(ENQUEUE_SCRIPT);
         this.enqueueScript.setResultType(Long.class);
+
+        this.ackScript = new DefaultRedisScript<>(ACK_SCRIPT, Long.class);
+        this.migrateLegacyScript = new DefaultRedisScript<>(MIGRATE_LEGACY_SCRIPT, Long.class);
+
+        this.reclaimScript = new DefaultRedisScript<>();
+        this.reclaimScript.setScriptText(RECLAIM_SCRIPT);
+        this.reclaimScript.setResultType(List.class);
+
+        this.backlogScript = new DefaultRedisScript<>();
+        this.backlogScript.setScriptText(BACKLOG_SCRIPT);
+        this.backlogScript.setResultType(List.class);
+
+        // 레인별 큐 상태 메트릭
+        for (FcmLane lane : FcmLane.values()) {
+            reclaimCursors.put(lane, new AtomicReference<>("0-0"));
+            Gauge.builder("fcm.queue.pending", this, service -> service.getPendingCount(lane))
+                    .description("ACK되지 않은 FCM 이벤트 수")
+                    .tag("lane", lane.getTag())
+                    .register(meterRegistry);
+            Gauge.builder("fcm.queue.size", this, service -> service.getQueueSize(lane))
+                    .description("FCM 스트림 길이")
+                    .tag("lane", lane.getTag())
+                    .register(meterRegistry);
+        }
+        this.redeliveredCounter = Counter.builder("fcm.queue.redelivered")
+                .description("회수되어 재전달된 FCM 이벤트 수")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("fcm.queue.dead_lettered")
+                .description("최대 전달 횟수 초과 또는 역직렬화 실패로 데드레터에 보관된 FCM 이벤트 수")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 레인별 컨슈머 그룹 생성 (스트림이 없으면 함께 생성) 및 구버전 리스트 큐 이관
+     */
+    @PostConstruct
+    public void initializeStream() {
+        for (FcmLane lane : FcmLane.values()) {
+            try {
+                redisTemplate.opsForStream().createGroup(lane.getStreamKey(), ReadOffset.from("0"), CONSUMER_GROUP);
+                log.info("FCM 컨슈머 그룹 생성 - Stream: {}, Group: {}", lane.getStreamKey(), CONSUMER_GROUP);
+            } catch (Exception e) {
+                String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                if (cause != null && cause.contains("BUSYGROUP")) {
+                    log.debug("FCM 컨슈머 그룹 이미 존재 - Stream: {}, Group: {}", lane.getStreamKey(), CONSUMER_GROUP);
+                } else {
+                    log.warn("FCM 컨슈머 그룹 생성 실패 - Stream: {}, Group: {}", lane.getStreamKey(), CONSUMER_GROUP, e);
+                }
+            }
+        }
+
+        try {
+            Long moved = redisTemplate.execute(migrateLegacyScript,
+                    List.of(LEGACY_QUEUE_KEY, FcmLane.NORMAL.getStreamKey()));
+            if (moved != null && moved > 0) {
+                log.info("구버전 FCM 리스트 큐 이관 완료 - Count: {}", moved);
+            }
+        } catch (Exception e) {
+            log.warn("구버전 FCM 리스트 큐 이관 실패", e);
+        }
+
+        log.info("FCM 스트림 컨슈머 등록 - Consumer: {}, ReclaimIdle: {}ms", consumerName, reclaimIdleMs);
     }
     
     /**
@@ -71,118 +250,279 @@ public class FcmQueueService {
             log.info("FCM 큐 이벤트 추가 시도 - EventId: {}, BusinessKey: {}, Targets: {}", 
                     eventWithKey.eventId(), eventWithKey.businessKey(), eventWithKey.targetMemberIds().size());
             
-            // JSON 직렬화
-            String eventJson = objectMapper.writeValueAsString(eventWithKey);
-            String processingKey = FCM_PROCESSING_KEY_PREFIX + businessKey;
-            String dedupKey = FCM_DEDUP_KEY_PREFIX + businessKey;
+            // 스키마 버전 포함 압축 인코딩
+            String eventJson = fcmEventCodec.encode(eventWithKey);
             
-            // Lua 스크립트로 원자적 처리 (processing + dedup 키 함께 설정)
-            Long result = redisTemplate.execute(enqueueScript, 
-                List.of(FCM_QUEUE_KEY, processingKey, dedupKey), 
-                eventJson, String.valueOf(PROCESSING_TTL_SECONDS), String.valueOf(DEDUP_TTL_SECONDS));
+            // 알림 타입에 해당하는 레인 스트림에 추가
+            FcmLane lane = FcmLane.of(eventWithKey.type());
+            
+            // Lua 스크립트로 원자적 처리 (디듀프 버킷 확인/기록 + 스트림 추가)
+            List<String> keys = new ArrayList<>();
+            keys.add(lane.getStreamKey());
+            keys.addAll(fcmDedupService.bucketKeys(FcmDedupService.Kind.EVENT));
+            Long result = redisTemplate.execute(enqueueScript, keys,
+                eventJson, String.valueOf(fcmDedupService.getBucketTtlSeconds()),
+                FcmDedupService.fingerprint(businessKey));
             
             if (result != null && result.equals(1L)) {
-                log.info("FCM 큐 이벤트 추가 완료 - EventId: {}, BusinessKey: {}", 
-                        eventWithKey.eventId(), eventWithKey.businessKey());
+                log.info("FCM 큐 이벤트 추가 완료 - EventId: {}, BusinessKey: {}, Lane: {}", 
+                        eventWithKey.eventId(), eventWithKey.businessKey(), lane.getTag());
+                meterRegistry.counter("fcm.events.enqueued",
+                        "type", event.type().name(), "lane", lane.getTag()).increment();
+                meterRegistry.summary("fcm.events.payload_size", "type", event.type().name()).record(eventJson.length());
                 return true;
             } else {
                 log.debug("FCM 이벤트 중복 방지 - BusinessKey: {}", businessKey);
+                meterRegistry.counter("fcm.events.deduplicated", "type", event.type().name()).increment();
                 return false;
             }
                     
-        } catch (JsonProcessingException e) {
-            log.error("FCM 이벤트 직렬화 실패 - EventId: {}, Error: {}", 
-                    event.eventId(), e.getMessage(), e);
-            return false;
         } catch (Exception e) {
             log.error("FCM 큐 이벤트 추가 실패 - EventId: {}, Error: {}", 
                     event.eventId(), e.getMessage(), e);
+            meterRegistry.counter("fcm.events.enqueue_failed", "type", event.type().name()).increment();
             return false;
         }
     }
     
     /**
-     * 큐에서 FCM 이벤트 하나 가져오기 (최적화된 타임아웃)
+     * 스트림에서 FCM 이벤트 하나 가져오기 (최적화된 타임아웃)
      */
-    public FcmNotificationEvent dequeueFcmEvent() {
+    public FcmQueuedEvent dequeueFcmEvent() {
         return dequeueFcmEventWithTimeout(3); // 타임아웃을 3초로 줄여서 응답성 향상
     }
     
     /**
-     * 큐에서 FCM 이벤트 하나 가져오기 (타임아웃 지정)
+     * 스트림에서 FCM 이벤트 하나 가져오기 (타임아웃 지정)
+     */
+    public FcmQueuedEvent dequeueFcmEventWithTimeout(int timeoutSeconds) {
+        List<FcmQueuedEvent> events = dequeueFcmEvents(1, timeoutSeconds);
+        return events.isEmpty() ? null : events.get(0);
+    }
+    
+    /**
+     * 레인별 가중치에 따라 FCM 이벤트를 최대 maxCount개까지 가져오기
+     * - 우선순위 순으로 레인별 몫만큼 논블로킹으로 읽고, 남은 몫은 다음 레인으로 넘김
+     * - 모든 레인이 비어 있으면 전체 레인을 대상으로 블로킹 대기 (1회 왕복)
+     * 읽은 이벤트는 ACK 전까지 컨슈머 그룹의 pending 목록에 남음
      */
-    public FcmNotificationEvent dequeueFcmEventWithTimeout(int timeoutSeconds) {
+    public List<FcmQueuedEvent> dequeueFcmEvents(int maxCount, int timeoutSeconds) {
         try {
-            // 큐에서 왼쪽에서 팝 (블로킹, 지정된 타임아웃)
-            String eventJson = redisTemplate.opsForList().leftPop(FCM_QUEUE_KEY, timeoutSeconds, TimeUnit.SECONDS);
-            
-            if (eventJson == null) {
-                return null; // 타임아웃 또는 빈 큐
+            List<FcmQueuedEvent> events = new ArrayList<>(maxCount);
+            int totalWeight = FcmLane.totalWeight();
+            int carry = 0;
+            for (FcmLane lane : FcmLane.values()) {
+                int share = Math.max(1, maxCount * lane.getWeight() / totalWeight) + carry;
+                int quota = Math.min(share, maxCount - events.size());
+                if (quota <= 0) {
+                    break;
+                }
+                List<FcmQueuedEvent> laneEvents = readLanes(StreamReadOptions.empty().count(quota), lane);
+                events.addAll(laneEvents);
+                carry = quota - laneEvents.size();
             }
             
-            // JSON을 객체로 역직렬화
-            FcmNotificationEvent event = objectMapper.readValue(eventJson, FcmNotificationEvent.class);
-            
-            log.debug("FCM 큐에서 이벤트 가져옴 - EventId: {}, BusinessKey: {}", 
-                    event.eventId(), event.businessKey());
+            if (!events.isEmpty()) {
+                return events;
+            }
             
-            return event;
+            // 모든 레인이 비어 있으면 새 이벤트가 들어올 때까지 블로킹 대기
+            return readLanes(StreamReadOptions.empty().count(maxCount).block(Duration.ofSeconds(timeoutSeconds)),
+                    FcmLane.values());
             
         } catch (Exception e) {
             // Redis 연결 종료 관련 예외는 별도 처리
-            if (e.getMessage() != null && 
-                (e.getMessage().contains("LettuceConnectionFactory has been STOPPED") ||
-                 e.getMessage().contains("Connection factory shut down"))) {
+            if (isConnectionClosed(e)) {
                 log.info("FCM 큐 서비스 종료 중 - Redis 연결 이미 종료됨");
-                return null; // 정상적인 종료 상황으로 처리
+                return List.of(); // 정상적인 종료 상황으로 처리
             }
             log.error("FCM 큐에서 이벤트 가져오기 실패", e);
-            return null;
+            return List.of();
         }
     }
     
+    @SuppressWarnings("unchecked")
+    private List<FcmQueuedEvent> readLanes(StreamReadOptions options, FcmLane... lanes) {
+        StreamOffset<String>[] offsets = new StreamOffset[lanes.length];
+        for (int i = 0; i < lanes.length; i++) {
+            offsets[i] = StreamOffset.create(lanes[i].getStreamKey(), ReadOffset.lastConsumed());
+        }
+        
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                Consumer.from(CONSUMER_GROUP, consumerName), options, offsets);
+        
+        if (records == null || records.isEmpty()) {
+            return List.of(); // 타임아웃 또는 빈 스트림
+        }
+        
+        List<FcmQueuedEvent> events = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            FcmLane lane = laneOf(record.getStream());
+            Object payload = record.getValue().get(PAYLOAD_FIELD);
+            FcmQueuedEvent queued = toQueuedEvent(lane, record.getId().getValue(),
+                    payload != null ? payload.toString() : null, 1);
+            if (queued != null) {
+                events.add(queued);
+            }
+        }
+        return events;
+    }
+    
+    private FcmLane laneOf(String streamKey) {
+        for (FcmLane lane : FcmLane.values()) {
+            if (lane.getStreamKey().equals(streamKey)) {
+                return lane;
+            }
+        }
+        return FcmLane.NORMAL;
+    }
+    
     /**
-     * 컨슈머에서 이벤트 처리 전 디듀프 검사 (2차 방어선)
+     * 유휴 시간이 임계값을 넘은 pending 이벤트를 현재 컨슈머로 회수 (XAUTOCLAIM, 우선순위 레인부터)
+     * 처리 중 죽은 컨슈머가 가져간 이벤트를 다시 처리하기 위함
      */
-    public boolean checkAndMarkConsumerDedup(String businessKey) {
+    public List<FcmQueuedEvent> reclaimStaleEvents() {
+        List<FcmQueuedEvent> reclaimed = new ArrayList<>();
+        for (FcmLane lane : FcmLane.values()) {
+            reclaimed.addAll(reclaimStaleEvents(lane));
+        }
+        if (!reclaimed.isEmpty()) {
+            log.warn("FCM pending 이벤트 회수 - Consumer: {}, Count: {}", consumerName, reclaimed.size());
+        }
+        return reclaimed;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<FcmQueuedEvent> reclaimStaleEvents(FcmLane lane) {
+        AtomicReference<String> cursor = reclaimCursors.get(lane);
         try {
-            String dedupKey = FCM_DEDUP_KEY_PREFIX + businessKey;
-            Boolean success = redisTemplate.opsForValue().setIfAbsent(
-                dedupKey, "1", DEDUP_TTL_SECONDS, TimeUnit.SECONDS);
+            List<String> result = redisTemplate.execute(reclaimScript,
+                    List.of(lane.getStreamKey()),
+                    CONSUMER_GROUP, consumerName, String.valueOf(reclaimIdleMs),
+                    cursor.get(), String.valueOf(reclaimBatchSize));
             
-            if (Boolean.TRUE.equals(success)) {
-                log.debug("컨슈머 디듀프 통과 - BusinessKey: {}", businessKey);
-                return true;
-            } else {
-                log.debug("컨슈머 디듀프 중복 차단 - BusinessKey: {}", businessKey);
-                return false;
+            if (result == null || result.isEmpty()) {
+                return List.of();
+            }
+            
+            // 다음 스캔 위치 저장 (0-0이면 처음부터 다시)
+            cursor.set(result.get(0));
+            
+            List<FcmQueuedEvent> reclaimed = new ArrayList<>();
+            for (int i = 1; i + 2 < result.size(); i += 3) {
+                String recordId = result.get(i);
+                long deliveryCount = Long.parseLong(result.get(i + 2));
+                
+                if (deliveryCount > maxDeliveries) {
+                    log.error("FCM 이벤트 최대 전달 횟수 초과, 데드레터 이동 - Lane: {}, RecordId: {}, Deliveries: {}",
+                            lane.getTag(), recordId, deliveryCount);
+                    moveToDeadLetter(lane, recordId, result.get(i + 1), "최대 전달 횟수 초과", deliveryCount);
+                    continue;
+                }
+                
+                FcmQueuedEvent queued = toQueuedEvent(lane, recordId, result.get(i + 1), deliveryCount);
+                if (queued != null) {
+                    redeliveredCounter.increment();
+                    reclaimed.add(queued);
+                }
+            }
+            return reclaimed;
+            
+        } catch (Exception e) {
+            if (isConnectionClosed(e)) {
+                log.debug("FCM pending 회수 중 Redis 연결 이미 종료됨");
+                return List.of();
+            }
+            log.error("FCM pending 이벤트 회수 실패 - Lane: {}", lane.getTag(), e);
+            return List.of();
+        }
+    }
+    
+    /**
+     * 스트림 레코드를 이벤트로 변환 - 역직렬화 불가한 레코드는 데드레터로 이동
+     */
+    private FcmQueuedEvent toQueuedEvent(FcmLane lane, String recordId, String eventJson, long deliveryCount) {
+        try {
+            if (eventJson == null) {
+                throw new IllegalStateException("payload 필드 없음");
+            }
+            FcmNotificationEvent event = fcmEventCodec.decode(eventJson);
+            if (event.businessKey() == null) {
+                event = event.withBusinessKey(fcmBusinessKeyGenerator.generateBusinessKey(event));
+            }
+            
+            log.debug("FCM 스트림에서 이벤트 가져옴 - RecordId: {}, EventId: {}, BusinessKey: {}, Deliveries: {}", 
+                    recordId, event.eventId(), event.businessKey(), deliveryCount);
+            
+            return new FcmQueuedEvent(recordId, lane, event, deliveryCount);
+        } catch (Exception e) {
+            log.error("FCM 이벤트 역직렬화 실패, 데드레터 이동 - RecordId: {}", recordId, e);
+            moveToDeadLetter(lane, recordId, eventJson, "역직렬화 실패", deliveryCount);
+            return null;
+        }
+    }
+    
+    /**
+     * 이벤트 처리 완료 - ACK + 스트림에서 삭제 (1회 왕복)
+     */
+    public void acknowledge(FcmQueuedEvent queued) {
+        acknowledgeAll(List.of(queued));
+    }
+    
+    /**
+     * 처리 완료된 이벤트 일괄 ACK (레인당 1회 왕복)
+     */
+    public void acknowledgeAll(List<FcmQueuedEvent> queuedEvents) {
+        if (queuedEvents.isEmpty()) {
+            return;
+        }
+        Map<FcmLane, List<FcmQueuedEvent>> byLane = new EnumMap<>(FcmLane.class);
+        for (FcmQueuedEvent queued : queuedEvents) {
+            byLane.computeIfAbsent(queued.lane(), lane -> new ArrayList<>()).add(queued);
+        }
+        byLane.forEach(this::acknowledgeLane);
+    }
+    
+    private void acknowledgeLane(FcmLane lane, List<FcmQueuedEvent> queuedEvents) {
+        try {
+            Object[] args = new Object[queuedEvents.size() + 1];
+            args[0] = CONSUMER_GROUP;
+            for (int i = 0; i < queuedEvents.size(); i++) {
+                args[i + 1] = queuedEvents.get(i).recordId();
             }
+
+            redisTemplate.execute(ackScript, List.of(lane.getStreamKey()), args);
+            log.debug("FCM 이벤트 ACK 완료 - Lane: {}, Count: {}", lane.getTag(), queuedEvents.size());
         } catch (Exception e) {
-            log.warn("컨슈머 디듀프 검사 실패, 처리 진행 - BusinessKey: {}", businessKey, e);
-            return true; // 실패 시 안전을 위해 처리 진행
+            log.error("FCM 이벤트 ACK 실패 - Lane: {}, Count: {}", lane.getTag(), queuedEvents.size(), e);
         }
     }
     
     /**
-     * 이벤트 처리 완료 마크
+     * 데드레터에 보관한 뒤 ACK (보관 실패 시 pending에 남겨 다음 회수 때 재시도)
      */
-    public void markEventCompleted(String businessKey) {
+    private void moveToDeadLetter(FcmLane lane, String recordId, String payload, String reason, long deliveryCount) {
+        if (fcmRetryQueueService.deadLetter(payload != null ? payload : "", reason, deliveryCount)) {
+            acknowledgeRecord(lane, recordId);
+            deadLetteredCounter.increment();
+        }
+    }
+    
+    private void acknowledgeRecord(FcmLane lane, String recordId) {
         try {
-            String processingKey = FCM_PROCESSING_KEY_PREFIX + businessKey;
-            // 비동기적으로 키 삭제
-            redisTemplate.unlink(processingKey);
-            log.debug("FCM 이벤트 처리 완료 마크 - BusinessKey: {}", businessKey);
+            redisTemplate.opsForStream().acknowledge(lane.getStreamKey(), CONSUMER_GROUP, recordId);
+            redisTemplate.opsForStream().delete(lane.getStreamKey(), recordId);
         } catch (Exception e) {
-            log.error("FCM 이벤트 완료 마크 실패 - BusinessKey: {}", businessKey, e);
+            log.error("FCM 레코드 ACK 실패 - Lane: {}, RecordId: {}", lane.getTag(), recordId, e);
         }
     }
     
     /**
-     * 채팅 메시지 알림 이벤트 발행
+     * 채팅 메시지 알림 이벤트 발행 (메시지당 1건, 수신자 전체 포함)
      */
-    public void publishChatNotification(Long targetMemberId, Long roomId, Long messageId, String senderNickname, String message) {
+    public void publishChatNotification(List<Long> targetMemberIds, Long roomId, Long messageId, String senderNickname, String message) {
         FcmNotificationEvent event = FcmNotificationEvent.createChatMessage(
-                targetMemberId, roomId, messageId, senderNickname, message);
+                targetMemberIds, roomId, messageId, senderNickname, message);
         enqueueFcmEvent(event);
     }
     
@@ -196,22 +536,115 @@ public class FcmQueueService {
     }
     
     /**
-     * FCM 큐의 현재 크기 조회
+     * FCM 스트림 전체 크기 조회 (ACK된 레코드는 삭제되므로 대기 + 처리 중 이벤트 수)
      */
     public long getQueueSize() {
+        long total = 0;
+        for (FcmLane lane : FcmLane.values()) {
+            total += getQueueSize(lane);
+        }
+        return total;
+    }
+    
+    public long getQueueSize(FcmLane lane) {
         try {
-            Long size = redisTemplate.opsForList().size(FCM_QUEUE_KEY);
+            Long size = redisTemplate.opsForStream().size(lane.getStreamKey());
             return size != null ? size : 0;
         } catch (Exception e) {
             // Redis 연결 종료 관련 예외는 별도 처리
-            if (e.getMessage() != null && 
-                (e.getMessage().contains("LettuceConnectionFactory has been STOPPED") ||
-                 e.getMessage().contains("Connection factory shut down"))) {
+            if (isConnectionClosed(e)) {
                 log.debug("FCM 큐 크기 조회 중 Redis 연결 이미 종료됨");
                 return 0;
             }
-            log.error("FCM 큐 크기 조회 실패", e);
+            log.error("FCM 큐 크기 조회 실패 - Lane: {}", lane.getTag(), e);
             return 0;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * 전체 레인의 미전달 백로그와 가장 오래된 대기 시간 (1회 왕복)
+     */
+    @SuppressWarnings("unchecked")
+    public FcmBacklog getBacklog() {
+        try {
+            FcmLane[] lanes = FcmLane.values();
+            List<String> keys = new ArrayList<>(lanes.length);
+            for (FcmLane lane : lanes) {
+                keys.add(lane.getStreamKey());
+            }
+            List<Long> result = redisTemplate.execute(backlogScript, keys, CONSUMER_GROUP);
+            if (result == null) {
+                return FcmBacklog.EMPTY;
+            }
+
+            long undelivered = 0;
+            long oldestAgeMs = 0;
+            for (int i = 0; i + 1 < result.size(); i += 2) {
+                undelivered += result.get(i);
+                oldestAgeMs = Math.max(oldestAgeMs, result.get(i + 1));
+            }
+            return new FcmBacklog(undelivered, oldestAgeMs);
+        } catch (Exception e) {
+            if (isConnectionClosed(e)) {
+                return FcmBacklog.EMPTY;
+            }
+            log.debug("FCM 백로그 조회 실패", e);
+            return FcmBacklog.EMPTY;
+        }
+    }
+
+    /**
+     * 컨슈머 그룹에 전달됐지만 아직 ACK되지 않은 이벤트 수
+     */
+    public long getPendingCount(FcmLane lane) {
+        try {
+            PendingMessagesSummary summary = redisTemplate.opsForStream().pending(lane.getStreamKey(), CONSUMER_GROUP);
+            return summary != null ? summary.getTotalPendingMessages() : 0;
+        } catch (Exception e) {
+            if (isConnectionClosed(e)) {
+                return 0;
+            }
+            log.debug("FCM pending 수 조회 실패 - Lane: {}", lane.getTag(), e);
+            return 0;
+        }
+    }
+    
+    /**
+     * 종료 시 처리 중인 이벤트가 없으면 컨슈머를 그룹에서 제거
+     * pending이 남아있으면 다른 서버가 회수할 수 있도록 유지
+     */
+    public void removeConsumerIfIdle() {
+        Consumer consumer = Consumer.from(CONSUMER_GROUP, consumerName);
+        for (FcmLane lane : FcmLane.values()) {
+            try {
+                PendingMessages pending = redisTemplate.opsForStream().pending(
+                        lane.getStreamKey(), consumer, Range.unbounded(), 1);
+                if (pending == null || pending.isEmpty()) {
+                    redisTemplate.opsForStream().deleteConsumer(lane.getStreamKey(), consumer);
+                    log.info("FCM 컨슈머 그룹에서 제거 - Lane: {}, Consumer: {}", lane.getTag(), consumerName);
+                } else {
+                    log.warn("FCM 컨슈머에 처리되지 않은 이벤트 {}개 남음 - 다른 서버에서 회수 예정, Lane: {}",
+                            pending.size(), lane.getTag());
+                }
+            } catch (Exception e) {
+                log.debug("FCM 컨슈머 제거 실패 - Lane: {}, Consumer: {}", lane.getTag(), consumerName, e);
+            }
+        }
+    }
+    
+    private boolean isConnectionClosed(Exception e) {
+        return e.getMessage() != null &&
+                (e.getMessage().contains("LettuceConnectionFactory has been STOPPED") ||
+                 e.getMessage().contains("Connection factory shut down"));
+    }
+    
+    private static String resolveConsumerName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return "fcm-" + host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,305 @@
+package com.project.catxi.fcm.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.catxi.common.api.error.FcmErrorCode;
+import com.project.catxi.common.api.exception.CatxiException;
+import com.project.catxi.fcm.dto.FcmDeadLetter;
+import com.project.catxi.fcm.dto.FcmLane;
+import com.project.catxi.fcm.dto.FcmNotificationEvent;
+import com.project.catxi.fcm.util.FcmEventCodec;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * FCM 이벤트 재시도 지연 큐 + 데드레터 큐
+ * - 재시도: 레인별 ZSET(score = 재시도 시각)에 보관 후 시각이 되면 해당 레인 스트림으로 재투입
+ * - 데드레터: 최대 시도 횟수 초과 이벤트를 리스트에 보관 (관리자 조회/재처리/삭제)
+ */
+@Slf4j
+@Service
+public class FcmRetryQueueService {
+
+    private static final String DEAD_LETTER_KEY = "fcm:dlq";
+    private static final int MAX_DEAD_LETTERS = 10_000;
+    private static final int PROMOTE_BATCH_SIZE = 100;
+
+    // Lua 스크립트: 재시도 시각이 지난 이벤트를 ZSET에서 꺼내 스트림에 재투입 (서버 간 중복 방지)
+    private static final String PROMOTE_SCRIPT =
+        "local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) " +
+        "for _, payload in ipairs(due) do " +
+        "redis.call('ZREM', KEYS[1], payload) " +
+        "redis.call('XADD', KEYS[2], '*', ARGV[3], payload) " +
+        "end " +
+        "return #due";
+
+    private final @Qualifier("chatPubSub") StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final FcmEventCodec fcmEventCodec;
+    private final DefaultRedisScript<Long> promoteScript;
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public FcmRetryQueueService(
+            @Qualifier("chatPubSub") StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            FcmEventCodec fcmEventCodec,
+            MeterRegistry meterRegistry,
+            @Value("${fcm.retry.max-attempts:5}") int maxAttempts,
+            @Value("${fcm.retry.base-delay-ms:2000}") long baseDelayMs,
+            @Value("${fcm.retry.max-delay-ms:300000}") long maxDelayMs) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper.copy()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.fcmEventCodec = fcmEventCodec;
+        this.promoteScript = new DefaultRedisScript<>(PROMOTE_SCRIPT, Long.class);
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+
+        Gauge.builder("fcm.retry.size", this, FcmRetryQueueService::getRetryQueueSize)
+                .description("재시도 대기 중인 FCM 이벤트 수")
+                .register(meterRegistry);
+        Gauge.builder("fcm.dlq.size", this, FcmRetryQueueService::countDeadLetters)
+                .description("데드레터에 보관된 FCM 이벤트 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 실패한 이벤트를 지연 큐에 등록 (지터 포함 지수 백오프)
+     * 최대 시도 횟수를 넘으면 데드레터로 이동
+     *
+     * @return 보관 성공 여부 (false면 원본을 ACK하지 말고 pending에 남겨야 함)
+     */
+    public boolean scheduleRetry(FcmNotificationEvent event, String reason) {
+        int attempt = event.retryCount() + 1;
+        try {
+            String payload = fcmEventCodec.encode(event.withRetryCount(attempt));
+            if (attempt >= maxAttempts) {
+                return deadLetter(payload, reason, attempt);
+            }
+
+            long delayMs = backoffDelayMs(attempt);
+            FcmLane lane = FcmLane.of(event.type());
+            redisTemplate.opsForZSet().add(lane.getRetryKey(), payload, System.currentTimeMillis() + delayMs);
+            log.warn("FCM 이벤트 재시도 예약 {}/{} - EventId: {}, 대기시간: {}ms, 사유: {}",
+                    attempt, maxAttempts, event.eventId(), delayMs, reason);
+            return true;
+        } catch (Exception e) {
+            log.error("FCM 이벤트 재시도 예약 실패 - EventId: {}", event.eventId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 재시도해도 결과가 같은 이벤트를 바로 데드레터로 이동
+     */
+    public boolean deadLetter(FcmNotificationEvent event, String reason) {
+        int attempts = event.retryCount() + 1;
+        try {
+            return deadLetter(fcmEventCodec.encode(event.withRetryCount(attempts)), reason, attempts);
+        } catch (Exception e) {
+            log.error("FCM 데드레터 인코딩 실패 - EventId: {}", event.eventId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 데드레터 큐에 보관 (최신 순, 최대 MAX_DEAD_LETTERS 개 유지)
+     */
+    public boolean deadLetter(String payload, String reason, long attempts) {
+        try {
+            FcmDeadLetter deadLetter = new FcmDeadLetter(
+                    UUID.randomUUID().toString(), reason, attempts, LocalDateTime.now(), payload);
+            redisTemplate.opsForList().leftPush(DEAD_LETTER_KEY, objectMapper.writeValueAsString(deadLetter));
+            redisTemplate.opsForList().trim(DEAD_LETTER_KEY, 0, MAX_DEAD_LETTERS - 1);
+            log.error("FCM 이벤트 데드레터 이동 - DeadLetterId: {}, Attempts: {}, 사유: {}",
+                    deadLetter.id(), attempts, reason);
+            return true;
+        } catch (Exception e) {
+            log.error("FCM 데드레터 저장 실패 - 사유: {}", reason, e);
+            return false;
+        }
+    }
+
+    /**
+     * 재시도 시각이 된 이벤트를 스트림으로 재투입
+     */
+    @Scheduled(fixedDelayString = "${fcm.retry.poll-interval-ms:1000}")
+    public void promoteDueRetries() {
+        try {
+            String now = String.valueOf(System.currentTimeMillis());
+            for (FcmLane lane : FcmLane.values()) {
+                Long promoted = redisTemplate.execute(promoteScript,
+                        List.of(lane.getRetryKey(), lane.getStreamKey()),
+                        now, String.valueOf(PROMOTE_BATCH_SIZE), FcmQueueService.PAYLOAD_FIELD);
+                if (promoted != null && promoted > 0) {
+                    log.info("FCM 재시도 이벤트 재투입 - Lane: {}, Count: {}", lane.getTag(), promoted);
+                }
+            }
+        } catch (Exception e) {
+            if (e.getMessage() != null &&
+                (e.getMessage().contains("LettuceConnectionFactory has been STOPPED") ||
+                 e.getMessage().contains("Connection factory shut down"))) {
+                log.debug("FCM 재시도 재투입 중 Redis 연결 이미 종료됨");
+                return;
+            }
+            log.error("FCM 재시도 이벤트 재투입 실패", e);
+        }
+    }
+
+    public long getRetryQueueSize() {
+        try {
+            long total = 0;
+            for (FcmLane lane : FcmLane.values()) {
+                Long size = redisTemplate.opsForZSet().zCard(lane.getRetryKey());
+                total += size != null ? size : 0;
+            }
+            return total;
+        } catch (Exception e) {
+            log.debug("FCM 재시도 큐 크기 조회 실패", e);
+            return 0;
+        }
+    }
+
+    public long countDeadLetters() {
+        try {
+            Long size = redisTemplate.opsForList().size(DEAD_LETTER_KEY);
+            return size != null ? size : 0;
+        } catch (Exception e) {
+            log.debug("FCM 데드레터 수 조회 실패", e);
+            return 0;
+        }
+    }
+
+    /**
+     * 데드레터 목록 조회 (최신 순)
+     */
+    public List<FcmDeadLetter> getDeadLetters(int offset, int size) {
+        List<String> raw = redisTemplate.opsForList().range(DEAD_LETTER_KEY, offset, offset + size - 1L);
+        if (raw == null) {
+            return List.of();
+        }
+        List<FcmDeadLetter> deadLetters = new ArrayList<>(raw.size());
+        for (String json : raw) {
+            FcmDeadLetter deadLetter = parseDeadLetter(json);
+            if (deadLetter != null) {
+                deadLetters.add(deadLetter);
+            }
+        }
+        return deadLetters;
+    }
+
+    /**
+     * 오래된 데드레터부터 최대 limit개를 재시도 횟수를 초기화해 스트림에 재투입
+     * 이벤트로 복원할 수 없는 항목은 데드레터에 그대로 남김
+     *
+     * @return 재투입된 이벤트 수
+     */
+    public int replayDeadLetters(int limit) {
+        int replayed = 0;
+        List<String> unrecoverable = new ArrayList<>();
+        for (int i = 0; i < limit; i++) {
+            String json = redisTemplate.opsForList().rightPop(DEAD_LETTER_KEY);
+            if (json == null) {
+                break;
+            }
+            if (requeue(parseDeadLetter(json))) {
+                replayed++;
+            } else {
+                unrecoverable.add(json);
+            }
+        }
+        if (!unrecoverable.isEmpty()) {
+            redisTemplate.opsForList().rightPushAll(DEAD_LETTER_KEY, unrecoverable);
+        }
+        log.info("FCM 데드레터 재처리 - 재투입: {}, 복원 불가: {}", replayed, unrecoverable.size());
+        return replayed;
+    }
+
+    /**
+     * 특정 데드레터 재투입
+     */
+    public void replayDeadLetter(String deadLetterId) {
+        List<String> raw = redisTemplate.opsForList().range(DEAD_LETTER_KEY, 0, -1);
+        if (raw != null) {
+            for (String json : raw) {
+                FcmDeadLetter deadLetter = parseDeadLetter(json);
+                if (deadLetter != null && deadLetter.id().equals(deadLetterId)) {
+                    Long removed = redisTemplate.opsForList().remove(DEAD_LETTER_KEY, 1, json);
+                    if (removed == null || removed == 0) {
+                        break; // 다른 요청에서 이미 처리됨
+                    }
+                    if (!requeue(deadLetter)) {
+                        redisTemplate.opsForList().rightPush(DEAD_LETTER_KEY, json);
+                        throw new CatxiException(FcmErrorCode.FCM_NOTIFICATION_SEND_FAILED);
+                    }
+                    log.info("FCM 데드레터 재처리 - DeadLetterId: {}", deadLetterId);
+                    return;
+                }
+            }
+        }
+        throw new CatxiException(FcmErrorCode.FCM_DEAD_LETTER_NOT_FOUND);
+    }
+
+    /**
+     * 데드레터 전체 삭제
+     *
+     * @return 삭제된 항목 수
+     */
+    public long purgeDeadLetters() {
+        long count = countDeadLetters();
+        redisTemplate.unlink(DEAD_LETTER_KEY);
+        log.info("FCM 데드레터 삭제 - Count: {}", count);
+        return count;
+    }
+
+    private boolean requeue(FcmDeadLetter deadLetter) {
+        if (deadLetter == null) {
+            return false;
+        }
+        try {
+            FcmNotificationEvent event = fcmEventCodec.decode(deadLetter.payload());
+            String payload = fcmEventCodec.encode(event.withRetryCount(0));
+            redisTemplate.opsForStream().add(FcmLane.of(event.type()).getStreamKey(),
+                    Map.of(FcmQueueService.PAYLOAD_FIELD, payload));
+            return true;
+        } catch (Exception e) {
+            log.warn("FCM 데드레터 복원 실패 - DeadLetterId: {}", deadLetter.id(), e);
+            return false;
+        }
+    }
+
+    private FcmDeadLetter parseDeadLetter(String json) {
+        try {
+            return objectMapper.readValue(json, FcmDeadLetter.class);
+        } catch (Exception e) {
+            log.warn("FCM 데드레터 파싱 실패", e);
+            return null;
+        }
+    }
+
+    /**
+     * 지수 백오프 + 지터 (기준 지연의 50~100% 사이 임의 값)
+     */
+    private long backoffDelayMs(int attempt) {
+        long delay = Math.min(maxDelayMs, baseDelayMs * (1L << Math.min(attempt - 1, 20)));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+}
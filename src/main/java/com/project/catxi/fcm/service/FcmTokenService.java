@@ -2,25 +2,57 @@ package com.project.catxi.fcm.service;
 
 import com.project.catxi.common.api.error.FcmErrorCode;
 import com.project.catxi.common.api.exception.CatxiException;
+import com.project.catxi.fcm.domain.FcmDeviceToken;
+import com.project.catxi.fcm.dto.FcmTokenDeleteReq;
 import com.project.catxi.fcm.dto.FcmTokenUpdateReq;
 import com.project.catxi.fcm.dto.FcmTokenUpdateRes;
+import com.project.catxi.fcm.repository.FcmDeviceTokenRepository;
+import com.project.catxi.fcm.util.FcmTokenHasher;
 import com.project.catxi.member.domain.Member;
-import com.project.catxi.member.repository.MemberRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class FcmTokenService {
 
-    private final MemberRepository memberRepository;
+    private final FcmDeviceTokenRepository fcmDeviceTokenRepository;
+    private final int staleDays;
+    private final int pruneBatchSize;
+    private final Counter invalidRemovedCounter;
+    private final Counter prunedCounter;
+
+    public FcmTokenService(
+            FcmDeviceTokenRepository fcmDeviceTokenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${fcm.token.stale-days:60}") int staleDays,
+            @Value("${fcm.token.prune-batch-size:500}") int pruneBatchSize) {
+        this.fcmDeviceTokenRepository = fcmDeviceTokenRepository;
+        this.staleDays = staleDays;
+        this.pruneBatchSize = pruneBatchSize;
+        this.invalidRemovedCounter = Counter.builder("fcm.tokens.invalid_removed")
+                .description("FCM 응답으로 무효 판정되어 삭제된 기기 토큰 수")
+                .register(meterRegistry);
+        this.prunedCounter = Counter.builder("fcm.tokens.pruned")
+                .description("오래되어 정리된 기기 토큰 수")
+                .register(meterRegistry);
+    }
 
     @Transactional
     public FcmTokenUpdateRes updateFcmToken(Member member, FcmTokenUpdateReq request) {
@@ -30,24 +62,24 @@ public class FcmTokenService {
                 throw new CatxiException(FcmErrorCode.INVALID_FCM_TOKEN_FORMAT);
             }
 
-            // 기존 토큰이 있고 같은 토큰인 경우
-            if (request.token().equals(member.getFcmToken())) {
-                log.info("동일한 FCM 토큰 - Member ID: {}", member.getId());
-                return new FcmTokenUpdateRes(
-                        member.getId(),
-                        member.getFcmTokenUpdatedAt(),
-                        true
-                );
-            }
+            String tokenHash = FcmTokenHasher.hash(request.token());
+            FcmDeviceToken deviceToken = fcmDeviceTokenRepository.findByTokenHash(tokenHash)
+                    .orElse(null);
 
-            // 새 토큰 업데이트
-            member.updateFcmToken(request.token());
-            memberRepository.save(member);
-            log.info("FCM 토큰 업데이트 - Member ID: {}", member.getId());
+            if (deviceToken != null) {
+                // 이미 등록된 기기 - 마지막 확인 시각 갱신 (다른 계정이었으면 소유자 변경)
+                deviceToken.refresh(member.getId(), request.platform());
+                log.info("FCM 토큰 갱신 - Member ID: {}, Token ID: {}", member.getId(), deviceToken.getId());
+            } else {
+                // 새 기기 등록 (회원당 여러 기기 허용)
+                deviceToken = fcmDeviceTokenRepository.save(
+                        FcmDeviceToken.of(member.getId(), request.token(), tokenHash, request.platform()));
+                log.info("FCM 토큰 등록 - Member ID: {}, Token ID: {}", member.getId(), deviceToken.getId());
+            }
 
             return new FcmTokenUpdateRes(
-                    member.getId(),
-                    member.getFcmTokenUpdatedAt(),
+                    deviceToken.getId(),
+                    deviceToken.getLastSeen(),
                     true
             );
 
@@ -59,16 +91,18 @@ public class FcmTokenService {
         }
     }
 
+    /**
+     * 기기 로그아웃 - 요청한 기기의 토큰만 삭제 (회원의 다른 기기는 계속 알림 수신)
+     */
     @Transactional
-    public void deleteFcmToken(Member member) {
+    public void deleteFcmToken(Member member, FcmTokenDeleteReq request) {
         try {
-            if (member.getFcmToken() == null) {
+            int deleted = fcmDeviceTokenRepository.deleteByTokenHashAndMemberId(
+                    FcmTokenHasher.hash(request.token()), member.getId());
+            if (deleted == 0) {
                 log.info("삭제할 FCM 토큰이 없음 - Member ID: {}", member.getId());
-                return; // 이미 토큰이 없는 경우, 바로 종료
+                return;
             }
-
-            member.updateFcmToken(null);
-            memberRepository.save(member);
             log.info("FCM 토큰 삭제 완료 - Member ID: {}", member.getId());
 
         } catch (Exception e) {
@@ -77,30 +111,91 @@ public class FcmTokenService {
         }
     }
 
+    /**
+     * 회원 탈퇴 - 모든 기기 토큰 삭제
+     */
+    @Transactional
+    public void deleteAllFcmTokens(Long memberId) {
+        int deleted = fcmDeviceTokenRepository.deleteAllByMemberId(memberId);
+        log.info("회원 FCM 토큰 전체 삭제 - Member ID: {}, Devices: {}", memberId, deleted);
+    }
+
     public List<String> getActiveTokens(Member member) {
         try {
-            return member.getFcmToken() != null 
-                ? List.of(member.getFcmToken()) 
-                : List.of();
+            return fcmDeviceTokenRepository.findAllByMemberId(member.getId()).stream()
+                    .map(FcmDeviceToken::getToken)
+                    .toList();
         } catch (Exception e) {
             log.warn("활성 FCM 토큰 조회 실패 - Member ID: {}, 알림 발송 건너뜀", member.getId());
             return List.of(); // 빈 리스트 반환으로 알림 시스템 중단 방지
         }
     }
 
+    /**
+     * 여러 회원의 모든 기기 토큰을 한 번의 쿼리로 조회
+     */
+    public Map<Long, List<String>> getActiveTokens(Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return fcmDeviceTokenRepository.findAllByMemberIdIn(memberIds).stream()
+                    .collect(Collectors.groupingBy(FcmDeviceToken::getMemberId, LinkedHashMap::new,
+                            Collectors.mapping(FcmDeviceToken::getToken, Collectors.toList())));
+        } catch (Exception e) {
+            log.warn("활성 FCM 토큰 일괄 조회 실패 - Members: {}, 알림 발송 건너뜀", memberIds.size());
+            return Map.of();
+        }
+    }
+
+    /**
+     * 유효하지 않은 토큰 일괄 삭제 (토큰 해시 인덱스 조회)
+     */
     @Transactional
-    public void removeInvalidFcmToken(String invalidToken) {
+    public void removeInvalidFcmTokens(Collection<String> invalidTokens) {
+        if (invalidTokens.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> tokenHashes = invalidTokens.stream()
+                    .map(FcmTokenHasher::hash)
+                    .distinct()
+                    .toList();
+            int deleted = fcmDeviceTokenRepository.deleteAllByTokenHashIn(tokenHashes);
+            invalidRemovedCounter.increment(deleted);
+            log.info("유효하지 않은 FCM 토큰 제거 완료 - 요청: {}, 삭제: {}", invalidTokens.size(), deleted);
+        } catch (Exception e) {
+            log.error("FCM 토큰 제거 실패 - Count: {}, Error: {}", invalidTokens.size(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 오래 갱신되지 않은 토큰 청크 단위 정리 (매일 04:30)
+     * 청크마다 별도 트랜잭션으로 삭제해 긴 락을 피함
+     */
+    @Scheduled(cron = "${fcm.token.prune-cron:0 30 4 * * *}", zone = "Asia/Seoul")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void pruneStaleTokens() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(staleDays);
+        long total = 0;
         try {
-            Member member = memberRepository.findByFcmToken(invalidToken);
-            if (member != null) {
-                member.updateFcmToken(null);
-                memberRepository.save(member);
-                log.info("유효하지 않은 FCM 토큰 제거 완료 - Member ID: {}", member.getId());
+            while (true) {
+                List<Long> staleIds = fcmDeviceTokenRepository.findStaleIds(cutoff, PageRequest.of(0, pruneBatchSize));
+                if (staleIds.isEmpty()) {
+                    break;
+                }
+                fcmDeviceTokenRepository.deleteAllByIdInBatch(staleIds);
+                prunedCounter.increment(staleIds.size());
+                total += staleIds.size();
+                if (staleIds.size() < pruneBatchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("오래된 FCM 토큰 정리 완료 - 기준: {}일, 삭제: {}", staleDays, total);
             }
         } catch (Exception e) {
-            log.error("FCM 토큰 제거 실패 - Token: {}, Error: {}", 
-                    invalidToken != null ? invalidToken.substring(0, Math.min(20, invalidToken.length())) + "..." : "null", 
-                    e.getMessage(), e);
+            log.error("오래된 FCM 토큰 정리 실패 - 삭제: {}, Error: {}", total, e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
@@ -33,20 +33,19 @@ public class FcmBusinessKeyGenerator {
     }
     
     /**
-     * 채팅 메시지 FCM 키 생성
-     * 형식: chat:{roomId}:{targetMemberId}:{messageId}
+     * 채팅 메시지 FCM 키 생성 (메시지당 1개, 수신자별 중복은 컨슈머에서 처리)
+     * 형식: chat:{roomId}:{messageId}
      */
     private String generateChatMessageKey(FcmNotificationEvent event) {
-        String roomId = event.data().get("roomId");
-        String messageId = event.data().get("messageId");
-        Long targetMemberId = event.targetMemberIds().get(0);
+        Long roomId = event.roomId();
+        Long messageId = event.messageId();
         
         // 메시지 ID 기반 고유 키 생성 (단순화)
-        if (messageId != null && !messageId.isEmpty()) {
-            return String.format("chat:%s:%d:%s", roomId, targetMemberId, messageId);
+        if (messageId != null) {
+            return String.format("chat:%s:%s", roomId, messageId);
         } else {
             // fallback: eventId 사용
-            return String.format("chat:%s:%d:%s", roomId, targetMemberId, event.eventId());
+            return String.format("chat:%s:%d", roomId, event.eventId());
         }
     }
     
@@ -55,10 +54,10 @@ public class FcmBusinessKeyGenerator {
      * 형식: ready:{roomId}:{eventId}
      */
     private String generateReadyRequestKey(FcmNotificationEvent event) {
-        String roomId = event.data().get("roomId");
+        Long roomId = event.roomId();
         
         // EventId 기반으로 단순화 (더 정확한 중복 방지)
-        return String.format("ready:%s:%s", roomId, event.eventId());
+        return String.format("ready:%s:%d", roomId, event.eventId());
     }
     
     /**
@@ -69,7 +68,7 @@ public class FcmBusinessKeyGenerator {
         Long targetMemberId = event.targetMemberIds().get(0);
         
         // EventId 기반으로 단순화
-        return String.format("system:%d:%s", targetMemberId, event.eventId());
+        return String.format("system:%d:%d", targetMemberId, event.eventId());
     }
     
 }
\ No newline at end of file
@@ -0,0 +1,282 @@
+package com.project.catxi.fcm.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.catxi.fcm.dto.FcmNotificationEvent;
+import com.project.catxi.fcm.dto.FcmNotificationEvent.NotificationType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * FCM 큐 이벤트 코덱 (발행/컨슈머/재시도/데드레터 공용)
+ *
+ * v2 (현재): 위치 기반 JSON 배열, 표시 문자열 없음
+ *   [2, typeCode, eventId, createdAtMillis, retryCount, [targetMemberIds], roomId, messageId, senderNickname, message]
+ *   - 선택 필드는 null, 뒤에 필드를 추가하는 변경은 버전 유지 (구버전 디코더는 남는 원소를 건너뜀)
+ *   - 기존 위치의 의미가 바뀌는 변경만 버전을 올림
+ * v1 (구버전): 필드명이 있는 JSON 객체 (title/body/data, UUID eventId, LocalDateTime createdAt)
+ *   - 계속 읽을 수 있음 / fcm.codec.write-version=1 이면 v1으로 기록 (모든 서버 배포 전 롤링 업그레이드용)
+ */
+@Slf4j
+@Component
+public class FcmEventCodec {
+
+    public static final int CURRENT_VERSION = 2;
+    private static final int LEGACY_VERSION = 1;
+
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+    private final int writeVersion;
+
+    public FcmEventCodec(ObjectMapper objectMapper,
+                         @Value("${fcm.codec.write-version:2}") int writeVersion) {
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+        if (writeVersion != LEGACY_VERSION && writeVersion != CURRENT_VERSION) {
+            throw new IllegalArgumentException("지원하지 않는 FCM 이벤트 스키마 버전: " + writeVersion);
+        }
+        this.writeVersion = writeVersion;
+
+        if (writeVersion == LEGACY_VERSION) {
+            log.warn("FCM 이벤트를 구버전(v1) 형식으로 기록합니다 - 전체 서버 배포 후 fcm.codec.write-version=2 로 전환하세요.");
+        }
+    }
+
+    public String encode(FcmNotificationEvent event) {
+        return writeVersion == LEGACY_VERSION ? encodeLegacy(event) : encodeCurrent(event);
+    }
+
+    /**
+     * 스키마 버전을 판별해 디코딩 (객체면 v1, 배열이면 첫 원소가 버전)
+     *
+     * @throws IllegalArgumentException 형식이 잘못됐거나 지원하지 않는 버전
+     */
+    public FcmNotificationEvent decode(String payload) {
+        if (payload == null || payload.isBlank()) {
+            throw new IllegalArgumentException("빈 FCM 이벤트 payload");
+        }
+        try {
+            return payload.charAt(0) == '{' ? decodeLegacy(payload) : decodeCurrent(payload);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("FCM 이벤트 디코딩 실패: " + e.getMessage(), e);
+        }
+    }
+
+    private String encodeCurrent(FcmNotificationEvent event) {
+        int textLength = length(event.senderNickname()) + length(event.message());
+        StringWriter writer = new StringWriter(64 + textLength + event.targetMemberIds().size() * 8);
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.writeStartArray();
+            generator.writeNumber(CURRENT_VERSION);
+            generator.writeNumber(event.type().getCode());
+            generator.writeNumber(event.eventId());
+            generator.writeNumber(event.createdAt());
+            generator.writeNumber(event.retryCount());
+            generator.writeStartArray();
+            for (Long memberId : event.targetMemberIds()) {
+                generator.writeNumber(memberId);
+            }
+            generator.writeEndArray();
+            writeNullable(generator, event.roomId());
+            writeNullable(generator, event.messageId());
+            generator.writeString(event.senderNickname());
+            generator.writeString(event.message());
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("FCM 이벤트 인코딩 실패 - EventId: " + event.eventId(), e);
+        }
+        return writer.toString();
+    }
+
+    private FcmNotificationEvent decodeCurrent(String payload) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            expect(parser.nextToken(), JsonToken.START_ARRAY);
+            int version = nextInt(parser);
+            if (version != CURRENT_VERSION) {
+                throw new IllegalArgumentException("지원하지 않는 FCM 이벤트 스키마 버전: " + version);
+            }
+
+            NotificationType type = NotificationType.fromCode(nextInt(parser));
+            long eventId = nextLong(parser);
+            long createdAt = nextLong(parser);
+            int retryCount = nextInt(parser);
+
+            expect(parser.nextToken(), JsonToken.START_ARRAY);
+            List<Long> targetMemberIds = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                targetMemberIds.add(parser.getLongValue());
+            }
+
+            Long roomId = nextNullableLong(parser);
+            Long messageId = nextNullableLong(parser);
+            String senderNickname = nextNullableString(parser);
+            String message = nextNullableString(parser);
+
+            // 이후 버전에서 뒤에 추가된 필드는 건너뜀
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                parser.skipChildren();
+            }
+
+            return new FcmNotificationEvent(eventId, null, type, List.copyOf(targetMemberIds),
+                    roomId, messageId, senderNickname, message, createdAt, retryCount);
+        }
+    }
+
+    /**
+     * v1 기록 - 구버전 서버가 읽을 수 있도록 title/body/data를 렌더링해 함께 기록
+     */
+    private String encodeLegacy(FcmNotificationEvent event) {
+        Map<String, Object> legacy = new LinkedHashMap<>();
+        Map<String, String> data = new LinkedHashMap<>();
+        if (event.type() == NotificationType.CHAT_MESSAGE) {
+            legacy.put("title", "새로운 채팅 메시지");
+            legacy.put("body", String.format("%s: %s", event.senderNickname(), event.message()));
+            data.put("type", "CHAT");
+        } else if (event.type() == NotificationType.READY_REQUEST) {
+            legacy.put("title", "준비 요청");
+            legacy.put("body", "방장이 준비요청을 보냈습니다");
+            data.put("type", "READY_REQUEST");
+        }
+        if (event.roomId() != null) {
+            data.put("roomId", String.valueOf(event.roomId()));
+        }
+        if (event.messageId() != null) {
+            data.put("messageId", String.valueOf(event.messageId()));
+        }
+
+        legacy.put("eventId", String.valueOf(event.eventId()));
+        legacy.put("businessKey", event.businessKey());
+        legacy.put("type", event.type().name());
+        legacy.put("targetMemberIds", event.targetMemberIds());
+        legacy.put("data", data);
+        legacy.put("createdAt", LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(event.createdAt()), ZoneId.systemDefault()).toString());
+        legacy.put("retryCount", event.retryCount());
+        try {
+            return objectMapper.writeValueAsString(legacy);
+        } catch (IOException e) {
+            throw new UncheckedIOException("FCM 이벤트 인코딩 실패 - EventId: " + event.eventId(), e);
+        }
+    }
+
+    /**
+     * v1 읽기 - 채팅 body("닉네임: 메시지")는 구버전 이벤트에서만 분리
+     */
+    private FcmNotificationEvent decodeLegacy(String payload) throws IOException {
+        JsonNode root = objectMapper.readTree(payload);
+        NotificationType type = NotificationType.valueOf(root.path("type").asText());
+        JsonNode data = root.path("data");
+
+        List<Long> targetMemberIds = new ArrayList<>();
+        for (JsonNode memberId : root.path("targetMemberIds")) {
+            targetMemberIds.add(memberId.asLong());
+        }
+
+        String senderNickname = null;
+        String message = null;
+        if (type == NotificationType.CHAT_MESSAGE) {
+            String body = root.path("body").asText("");
+            String[] parts = body.split(": ", 2);
+            senderNickname = parts.length > 1 ? parts[0] : "Unknown";
+            message = parts.length > 1 ? parts[1] : body;
+        }
+
+        long createdAt = root.hasNonNull("createdAt")
+                ? LocalDateTime.parse(root.get("createdAt").asText())
+                        .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+
+        return new FcmNotificationEvent(
+                legacyEventId(root.path("eventId").asText()),
+                root.hasNonNull("businessKey") ? root.get("businessKey").asText() : null,
+                type,
+                List.copyOf(targetMemberIds),
+                data.hasNonNull("roomId") ? Long.valueOf(data.get("roomId").asText()) : null,
+                data.hasNonNull("messageId") ? Long.valueOf(data.get("messageId").asText()) : null,
+                senderNickname,
+                message,
+                createdAt,
+                root.path("retryCount").asInt(0));
+    }
+
+    /**
+     * v1 UUID 이벤트 ID를 63비트 숫자로 변환 (숫자 문자열이면 그대로)
+     */
+    private long legacyEventId(String eventId) {
+        try {
+            return Long.parseLong(eventId);
+        } catch (NumberFormatException ignored) {
+            // UUID 형식
+        }
+        try {
+            UUID uuid = UUID.fromString(eventId);
+            return (uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits()) & Long.MAX_VALUE;
+        } catch (IllegalArgumentException e) {
+            return FcmNotificationEvent.newEventId();
+        }
+    }
+
+    private static void writeNullable(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new IllegalArgumentException("잘못된 FCM 이벤트 형식 - 기대: " + expected + ", 실제: " + actual);
+        }
+    }
+
+    private static int nextInt(JsonParser parser) throws IOException {
+        expect(parser.nextToken(), JsonToken.VALUE_NUMBER_INT);
+        return parser.getIntValue();
+    }
+
+    private static long nextLong(JsonParser parser) throws IOException {
+        expect(parser.nextToken(), JsonToken.VALUE_NUMBER_INT);
+        return parser.getLongValue();
+    }
+
+    private static Long nextNullableLong(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(token, JsonToken.VALUE_NUMBER_INT);
+        return parser.getLongValue();
+    }
+
+    private static String nextNullableString(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(token, JsonToken.VALUE_STRING);
+        return parser.getText();
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
@@ -8,6 +8,7 @@ import com.project.catxi.member.dto.AuthDTO;
 import com.project.catxi.member.dto.AuthDTO.LoginResponse;
 import com.project.catxi.member.dto.IdResponse;
 import com.project.catxi.member.dto.MatchHistoryRes;
+import com.project.catxi.member.dto.MatchHistoryScrollRes;
 import com.project.catxi.member.dto.MemberProfileRes;
 import com.project.catxi.member.dto.SignUpDTO;
 import com.project.catxi.member.domain.Member;
@@ -17,11 +18,9 @@ import com.project.catxi.member.service.MemberService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import java.net.URI;
+import java.time.LocalDateTime;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -139,15 +138,18 @@ public class MemberController {
 //    return ResponseEntity.ok(summaries);
 //  }
 
-  @Operation(summary = "이용 기록 전부 조회")
+  @Operation(summary = "이용 기록 전부 조회", description = "이전 응답의 nextCursorCreatedAt, nextCursorId를 커서로 넘기면 다음 페이지를 조회합니다")
   @GetMapping("/history/all")
-  public ResponseEntity<Slice<MatchHistoryRes>> getMyMatchHistoryWithScroll(
+  public ResponseEntity<MatchHistoryScrollRes> getMyMatchHistoryWithScroll(
       @AuthenticationPrincipal UserDetails userDetails,
-      @PageableDefault(size = 2, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
+      @RequestParam(value = "cursorCreatedAt", required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorCreatedAt,
+      @RequestParam(value = "cursorId", required = false) Long cursorId,
+      @RequestParam(value = "size", defaultValue = "2") int size
   ) {
     String email = userDetails.getUsername();
-    Slice<MatchHistoryRes> slice = matchHistoryService.getScrollHistory(email, pageable);
-    return ResponseEntity.ok(slice);
+    MatchHistoryScrollRes res = matchHistoryService.getScrollHistory(email, cursorCreatedAt, cursorId, size);
+    return ResponseEntity.ok(res);
   }
 
 
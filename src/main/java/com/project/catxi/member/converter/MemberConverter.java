@@ -14,10 +14,14 @@ import org.springframework.stereotype.Component;
 public class MemberConverter {
 
   public static MemberProfileRes toMemberProfileDTO(Member member) {
+    return toMemberProfileDTO(member, member.getMatchCount());
+  }
+
+  public static MemberProfileRes toMemberProfileDTO(Member member, int matchCount) {
     return new MemberProfileRes(
         member.getMembername(),
         member.getStudentNo(),
-        member.getMatchCount());
+        matchCount);
   }
 
 
@@ -0,0 +1,67 @@
+package com.project.catxi.member.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * 회원별 이용 기록 참여 인덱스
+ * (member_id, created_at, history_id) 커버링 인덱스로 키셋 페이지네이션 조회
+ */
+@Entity
+@Table(name = "match_participation", indexes = {
+	@Index(name = "idx_match_participation_member_created", columnList = "member_id, created_at, history_id")
+})
+@IdClass(MatchParticipation.Key.class)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class MatchParticipation implements Persistable<MatchParticipation.Key> {
+
+	@Id
+	@Column(name = "member_id")
+	private Long memberId;
+
+	@Id
+	@Column(name = "history_id")
+	private Long historyId;
+
+	//이력 생성 시점 (정렬 기준)
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+
+	public static MatchParticipation of(Long memberId, MatchHistory history) {
+		return new MatchParticipation(memberId, history.getId(), history.getCreatedAt());
+	}
+
+	@Override
+	public Key getId() {
+		return new Key(memberId, historyId);
+	}
+
+	// 참여 인덱스는 insert 전용 - merge 전 SELECT 생략
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@EqualsAndHashCode
+	public static class Key implements Serializable {
+		private Long memberId;
+		private Long historyId;
+	}
+}
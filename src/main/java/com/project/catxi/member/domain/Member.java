@@ -40,8 +40,8 @@ public class Member extends BaseTimeEntity {
 
 	private String role;
 
-	//조회 기록
-	@Column(nullable = false)
+	//조회 기록 (StatCounterService 가 일괄 반영하므로 엔티티 UPDATE 대상에서 제외)
+	@Column(nullable = false, updatable = false)
 	private int matchCount;
 
 	@Column(nullable = false, updatable = false)
@@ -58,7 +58,7 @@ public class Member extends BaseTimeEntity {
 	@Enumerated(EnumType.STRING)
 	private MemberStatus status;
 
-	// FCM 토큰
+	// FCM 토큰 (단일 기기 시절 컬럼 - 현재는 fcm_device_token 사용)
 	@Column(name = "fcm_token", columnDefinition = "TEXT")
 	private String fcmToken;
 
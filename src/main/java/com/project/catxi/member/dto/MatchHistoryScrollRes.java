@@ -0,0 +1,11 @@
+package com.project.catxi.member.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record MatchHistoryScrollRes(
+    List<MatchHistoryRes> content,
+    boolean hasNext,
+    LocalDateTime nextCursorCreatedAt,
+    Long nextCursorId
+){}
@@ -2,13 +2,13 @@ package com.project.catxi.member.repository;
 
 import com.project.catxi.member.domain.MatchHistory;
 import com.project.catxi.member.domain.Member;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -18,17 +18,8 @@ public interface MatchHistoryRepository extends JpaRepository<MatchHistory, Long
 
   Slice<MatchHistory> findAllByUserOrderByCreatedAtDesc(Member user, Pageable pageable);
 
-  @Query("""
-    SELECT DISTINCT m FROM MatchHistory m
-    LEFT JOIN m.fellas f
-    WHERE m.user.email = :email
-       OR f = :nickname
-    ORDER BY m.createdAt DESC
-""")
-  Slice<MatchHistory> findHistoriesByUserOrFella(
-      @Param("email") String email,
-      @Param("nickname") String nickname,
-      Pageable pageable
-  );
+  // 참여 인덱스로 찾은 이력 ID 목록을 fellas와 함께 한 번에 조회
+  @EntityGraph(attributePaths = "fellas")
+  List<MatchHistory> findAllByIdIn(Collection<Long> ids);
 }
 
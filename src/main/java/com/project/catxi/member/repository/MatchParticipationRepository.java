@@ -0,0 +1,37 @@
+package com.project.catxi.member.repository;
+
+import com.project.catxi.member.domain.MatchParticipation;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MatchParticipationRepository extends JpaRepository<MatchParticipation, MatchParticipation.Key> {
+
+  // 첫 페이지 (커서 없음)
+  @Query("""
+    SELECT p FROM MatchParticipation p
+    WHERE p.memberId = :memberId
+    ORDER BY p.createdAt DESC, p.historyId DESC
+""")
+  List<MatchParticipation> findLatest(@Param("memberId") Long memberId, Pageable pageable);
+
+  // 커서 이후 페이지 (createdAt, historyId) 키셋
+  @Query("""
+    SELECT p FROM MatchParticipation p
+    WHERE p.memberId = :memberId
+      AND (p.createdAt < :createdAt
+           OR (p.createdAt = :createdAt AND p.historyId < :historyId))
+    ORDER BY p.createdAt DESC, p.historyId DESC
+""")
+  List<MatchParticipation> findAfterCursor(
+      @Param("memberId") Long memberId,
+      @Param("createdAt") LocalDateTime createdAt,
+      @Param("historyId") Long historyId,
+      Pageable pageable
+  );
+}
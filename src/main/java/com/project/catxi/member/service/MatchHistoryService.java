@@ -8,20 +8,28 @@ import com.project.catxi.chat.repository.ChatRoomRepository;
 import com.project.catxi.common.api.error.ChatRoomErrorCode;
 import com.project.catxi.common.api.error.MemberErrorCode;
 import com.project.catxi.common.api.exception.CatxiException;
+import com.project.catxi.common.counter.StatCounter;
+import com.project.catxi.common.counter.StatCounterService;
 import com.project.catxi.common.domain.RoomStatus;
 import com.project.catxi.member.dto.MatchHistoryRes;
+import com.project.catxi.member.dto.MatchHistoryScrollRes;
 import com.project.catxi.member.converter.MemberConverter;
 import com.project.catxi.member.domain.MatchHistory;
+import com.project.catxi.member.domain.MatchParticipation;
 import com.project.catxi.member.domain.Member;
 import com.project.catxi.member.repository.MatchHistoryRepository;
+import com.project.catxi.member.repository.MatchParticipationRepository;
 import com.project.catxi.member.repository.MemberRepository;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,12 +41,16 @@ import lombok.RequiredArgsConstructor;
 @Slf4j
 public class MatchHistoryService {
 
+  private static final int MAX_SCROLL_SIZE = 50;
+
   private final MatchHistoryRepository matchHistoryRepository;
+  private final MatchParticipationRepository matchParticipationRepository;
   private final MemberRepository memberRepository;
 
   private final ChatParticipantRepository chatParticipantRepository;
   private final ChatMessageRepository chatMessageRepository;
   private final ChatRoomRepository chatRoomRepository;
+  private final StatCounterService statCounterService;
 
   //단 건 조회용
   public MatchHistoryRes getHistoryById(Long historyId, String email) {
@@ -63,15 +75,50 @@ public class MatchHistoryService {
   //        .toList();
   //  }
 
-  //전체 내역 조회용
-  public Slice<MatchHistoryRes> getScrollHistory(String email, Pageable pageable) {
+  //전체 내역 조회용 (참여 인덱스 기반 키셋 페이지네이션)
+  @Transactional(readOnly = true)
+  public MatchHistoryScrollRes getScrollHistory(String email, LocalDateTime cursorCreatedAt, Long cursorId, int size) {
     Member user = memberRepository.findByEmail(email)
         .orElseThrow(() -> new CatxiException(MemberErrorCode.MEMBER_NOT_FOUND));
 
+    int pageSize = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+    // 다음 페이지 존재 여부 확인을 위해 1건 더 조회
+    PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+    List<MatchParticipation> participations = (cursorCreatedAt == null || cursorId == null)
+        ? matchParticipationRepository.findLatest(user.getId(), limit)
+        : matchParticipationRepository.findAfterCursor(user.getId(), cursorCreatedAt, cursorId, limit);
+
+    boolean hasNext = participations.size() > pageSize;
+    if (hasNext) {
+      participations = participations.subList(0, pageSize);
+    }
+    if (participations.isEmpty()) {
+      return new MatchHistoryScrollRes(List.of(), false, null, null);
+    }
+
+    List<Long> historyIds = participations.stream()
+        .map(MatchParticipation::getHistoryId)
+        .toList();
+    Map<Long, MatchHistory> historyMap = matchHistoryRepository.findAllByIdIn(historyIds).stream()
+        .collect(Collectors.toMap(MatchHistory::getId, Function.identity()));
+
     String membername = user.getMembername();
-    Slice<MatchHistory> histories = matchHistoryRepository.findHistoriesByUserOrFella(email, membername, pageable);
+    List<MatchHistoryRes> content = new ArrayList<>(historyIds.size());
+    for (Long historyId : historyIds) {
+      MatchHistory history = historyMap.get(historyId);
+      if (history != null) {
+        content.add(MemberConverter.toAllResDTO(history, membername));
+      }
+    }
 
-    return histories.map(history->MemberConverter.toAllResDTO(history,membername));
+    MatchParticipation last = participations.get(participations.size() - 1);
+    return new MatchHistoryScrollRes(
+        content,
+        hasNext,
+        hasNext ? last.getCreatedAt() : null,
+        hasNext ? last.getHistoryId() : null
+    );
   }
 
   //매치 히스토리 저장 : 채팅방, 채팅내역, 채팅 참가자 제거
@@ -97,25 +144,29 @@ public class MatchHistoryService {
         .map(participant -> participant.getMember().getNickname())
         .toList();
 
+    LocalDateTime createdAt = LocalDateTime.now();
+    List<MatchParticipation> participationIndex = new ArrayList<>(participants.size());
     for (ChatParticipant participant : participants) {
       Member part = participant.getMember();
-      part.setMatchCount(part.getMatchCount() + 1);
-      saveMatchHistory(room, part, fellas);
-      memberRepository.save(part);
+      MatchHistory history = saveMatchHistory(room, part, fellas, createdAt);
+      participationIndex.add(MatchParticipation.of(part.getId(), history));
+      // 매칭 횟수는 버퍼링 카운터로 증가 (member 행 잠금 없음)
+      statCounterService.increment(StatCounter.MEMBER_MATCH_COUNT, part.getId(), 1);
     }
+    matchParticipationRepository.saveAll(participationIndex);
 
   }
 
-  private void saveMatchHistory(ChatRoom chatRoom, Member member,List<String> fellasList) {
+  private MatchHistory saveMatchHistory(ChatRoom chatRoom, Member member, List<String> fellasList, LocalDateTime createdAt) {
     MatchHistory matchHistory = MatchHistory.builder()
         .user(member)
         .startPoint(chatRoom.getStartPoint())
         .endPoint(chatRoom.getEndPoint())
         .fellas(fellasList)
-        .createdAt(LocalDateTime.now())
+        .createdAt(createdAt)
         .matchedAt(chatRoom.getMatchedAt())
         .build();
-    matchHistoryRepository.save(matchHistory);
+    return matchHistoryRepository.save(matchHistory);
   }
 
 }
@@ -2,12 +2,17 @@ package com.project.catxi.member.service;
 
 import com.project.catxi.common.api.error.MemberErrorCode;
 import com.project.catxi.common.api.exception.CatxiException;
+import com.project.catxi.common.auth.infra.PrincipalInvalidatedEvent;
+import com.project.catxi.common.counter.StatCounter;
+import com.project.catxi.common.counter.StatCounterService;
+import com.project.catxi.fcm.service.FcmTokenService;
 import com.project.catxi.member.dto.MemberProfileRes;
 import com.project.catxi.member.dto.SignUpDTO;
 import com.project.catxi.member.domain.Member;
 import com.project.catxi.member.converter.MemberConverter;
 import com.project.catxi.member.repository.MemberRepository;
 import java.time.LocalDateTime;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -19,10 +24,18 @@ public class MemberService {
 
   private final MemberRepository memberRepository;
   private final BCryptPasswordEncoder bCryptPasswordEncoder;
+  private final StatCounterService statCounterService;
+  private final ApplicationEventPublisher applicationEventPublisher;
+  private final FcmTokenService fcmTokenService;
 
-  public MemberService(MemberRepository memberRepository, BCryptPasswordEncoder bCryptPasswordEncoder) {
+  public MemberService(MemberRepository memberRepository, BCryptPasswordEncoder bCryptPasswordEncoder,
+      StatCounterService statCounterService, ApplicationEventPublisher applicationEventPublisher,
+      FcmTokenService fcmTokenService) {
     this.memberRepository = memberRepository;
     this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+    this.statCounterService = statCounterService;
+    this.applicationEventPublisher = applicationEventPublisher;
+    this.fcmTokenService = fcmTokenService;
   }
 
   public Long signUp(SignUpDTO dto) {
@@ -51,13 +64,19 @@ public class MemberService {
         .orElseThrow(() -> new CatxiException(MemberErrorCode.MEMBER_NOT_FOUND));
 
     member.delete();
+    // 탈퇴 회원의 모든 기기로 더 이상 알림을 보내지 않음
+    fcmTokenService.deleteAllFcmTokens(member.getId());
+    // 커밋 후 모든 서버의 인증 주체 캐시에서 제거 (INACTIVE 즉시 차단)
+    applicationEventPublisher.publishEvent(PrincipalInvalidatedEvent.ofMember(member.getId()));
   }
 
   public MemberProfileRes getProfile(String email) {
     Member member = memberRepository.findByEmail(email)
         .orElseThrow(() -> new CatxiException(MemberErrorCode.MEMBER_NOT_FOUND));
 
-    return MemberConverter.toMemberProfileDTO(member);
+    int matchCount = statCounterService.withPending(
+        StatCounter.MEMBER_MATCH_COUNT, member.getId(), member.getMatchCount());
+    return MemberConverter.toMemberProfileDTO(member, matchCount);
   }
 
 }
@@ -0,0 +1,171 @@
+package com.project.catxi.common.auth.infra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.project.catxi.common.auth.infra.RefreshTokenRepository.RotationResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * RefreshToken 회전 스크립트 (ROTATE_SCRIPT) - 실제 Redis 에서 검증
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RefreshTokenRepositoryTest {
+
+  private static final String EMAIL = "user@catxi.com";
+  private static final Duration TTL = Duration.ofMinutes(10);
+
+  @Container
+  private static final GenericContainer<?> REDIS =
+      new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+  private static LettuceConnectionFactory connectionFactory;
+  private static RedisTemplate<String, String> tokenRedisTemplate;
+
+  @BeforeAll
+  static void connect() {
+    connectionFactory = new LettuceConnectionFactory(
+        new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+    connectionFactory.afterPropertiesSet();
+
+    tokenRedisTemplate = new RedisTemplate<>();
+    tokenRedisTemplate.setConnectionFactory(connectionFactory);
+    tokenRedisTemplate.setDefaultSerializer(new StringRedisSerializer());
+    tokenRedisTemplate.afterPropertiesSet();
+  }
+
+  @AfterAll
+  static void disconnect() {
+    connectionFactory.destroy();
+  }
+
+  @BeforeEach
+  void flush() {
+    tokenRedisTemplate.execute((RedisCallback<Object>) connection -> {
+      connection.serverCommands().flushAll();
+      return null;
+    });
+  }
+
+  @Test
+  void 저장된_토큰이면_회전하고_패밀리_유지() {
+    RefreshTokenRepository repository = new RefreshTokenRepository(tokenRedisTemplate, 2000);
+    repository.save(EMAIL, "t1", TTL);
+    String family = family();
+
+    assertThat(repository.rotate(EMAIL, "t1", "t2", TTL)).isEqualTo(RotationResult.ROTATED);
+
+    assertThat(repository.findByKey(EMAIL)).contains("t2");
+    assertThat(family()).isEqualTo(family);
+    // 새 토큰의 역인덱스가 만들어져 토큰 값으로 삭제 가능
+    repository.deleteByToken("t2");
+    assertThat(repository.findByKey(EMAIL)).isEmpty();
+  }
+
+  @Test
+  void 동시_회전은_하나만_성공() throws Exception {
+    RefreshTokenRepository repository = new RefreshTokenRepository(tokenRedisTemplate, 2000);
+    repository.save(EMAIL, "t1", TTL);
+
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<RotationResult>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < threads; i++) {
+        String newToken = "t2-" + i;
+        futures.add(executor.submit(() -> {
+          start.await();
+          return repository.rotate(EMAIL, "t1", newToken, TTL);
+        }));
+      }
+      start.countDown();
+
+      List<String> winners = new ArrayList<>();
+      int mismatches = 0;
+      for (int i = 0; i < threads; i++) {
+        RotationResult result = futures.get(i).get(10, TimeUnit.SECONDS);
+        if (result == RotationResult.ROTATED) {
+          winners.add("t2-" + i);
+        } else if (result == RotationResult.MISMATCH) {
+          mismatches++;
+        }
+      }
+
+      assertThat(winners).hasSize(1);
+      assertThat(mismatches).isEqualTo(threads - 1);
+      assertThat(repository.findByKey(EMAIL)).contains(winners.get(0));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void 유예_시간_안의_재사용은_불일치로_처리하고_패밀리_유지() {
+    RefreshTokenRepository repository = new RefreshTokenRepository(tokenRedisTemplate, 60_000);
+    repository.save(EMAIL, "t1", TTL);
+    repository.rotate(EMAIL, "t1", "t2", TTL);
+    String family = family();
+
+    assertThat(repository.rotate(EMAIL, "t1", "t3", TTL)).isEqualTo(RotationResult.MISMATCH);
+
+    assertThat(repository.findByKey(EMAIL)).contains("t2");
+    assertThat(family()).isEqualTo(family);
+  }
+
+  @Test
+  void 유예_시간_이후의_재사용은_패밀리_폐기() throws Exception {
+    RefreshTokenRepository repository = new RefreshTokenRepository(tokenRedisTemplate, 10);
+    repository.save(EMAIL, "t1", TTL);
+    repository.rotate(EMAIL, "t1", "t2", TTL);
+    Thread.sleep(50);
+
+    assertThat(repository.rotate(EMAIL, "t1", "t3", TTL)).isEqualTo(RotationResult.REUSE_DETECTED);
+
+    assertThat(repository.findByKey(EMAIL)).isEmpty();
+    assertThat(family()).isNull();
+    // 폐기된 현재 토큰으로도 회전 불가
+    assertThat(repository.rotate(EMAIL, "t2", "t4", TTL)).isEqualTo(RotationResult.MISMATCH);
+  }
+
+  @Test
+  void 재로그인_후_이전_패밀리_토큰_재사용은_새_패밀리를_폐기하지_않음() throws Exception {
+    RefreshTokenRepository repository = new RefreshTokenRepository(tokenRedisTemplate, 10);
+    repository.save(EMAIL, "t1", TTL);
+    repository.rotate(EMAIL, "t1", "t2", TTL);
+    String oldFamily = family();
+
+    repository.save(EMAIL, "t3", TTL);
+    String newFamily = family();
+    Thread.sleep(50);
+
+    assertThat(newFamily).isNotEqualTo(oldFamily);
+    assertThat(repository.rotate(EMAIL, "t1", "t4", TTL)).isEqualTo(RotationResult.MISMATCH);
+
+    assertThat(repository.findByKey(EMAIL)).contains("t3");
+    assertThat(family()).isEqualTo(newFamily);
+  }
+
+  private String family() {
+    return tokenRedisTemplate.opsForValue().get("refresh:family:" + EMAIL);
+  }
+}
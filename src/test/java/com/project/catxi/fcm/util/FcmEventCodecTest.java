@@ -0,0 +1,119 @@
+package com.project.catxi.fcm.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.catxi.fcm.dto.FcmNotificationEvent;
+import com.project.catxi.fcm.dto.FcmNotificationEvent.NotificationType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FcmEventCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FcmEventCodec codec = new FcmEventCodec(objectMapper, 2);
+    private final FcmEventCodec legacyCodec = new FcmEventCodec(objectMapper, 1);
+
+    @Test
+    void v2_채팅_이벤트_왕복() {
+        FcmNotificationEvent event = chatEvent("닉네임", "안녕하세요");
+
+        String payload = codec.encode(event);
+        FcmNotificationEvent decoded = codec.decode(payload);
+
+        assertThat(payload).startsWith("[2,");
+        assertThat(decoded).isEqualTo(event.withBusinessKey(null));
+    }
+
+    @Test
+    void v2_준비요청_이벤트_왕복_선택_필드_null() {
+        FcmNotificationEvent event = new FcmNotificationEvent(
+                7L, null, NotificationType.READY_REQUEST, List.of(1L), 10L, null, null, null, 1_700_000_000_000L, 0);
+
+        FcmNotificationEvent decoded = codec.decode(codec.encode(event));
+
+        assertThat(decoded).isEqualTo(event);
+    }
+
+    @Test
+    void v1_페이로드_읽기() {
+        String payload = """
+                {"title":"새로운 채팅 메시지","body":"닉네임: 안녕하세요",\
+                "eventId":"3f2b8c1e-7a4d-4e0f-9b61-2c5d8e9f0a13","businessKey":"chat:10:99",\
+                "type":"CHAT_MESSAGE","targetMemberIds":[1,2],\
+                "data":{"type":"CHAT","roomId":"10","messageId":"99"},\
+                "createdAt":"2024-05-01T12:30:45.123","retryCount":2}""";
+
+        FcmNotificationEvent decoded = codec.decode(payload);
+
+        assertThat(decoded.type()).isEqualTo(NotificationType.CHAT_MESSAGE);
+        assertThat(decoded.eventId()).isPositive();
+        assertThat(decoded.businessKey()).isEqualTo("chat:10:99");
+        assertThat(decoded.targetMemberIds()).containsExactly(1L, 2L);
+        assertThat(decoded.roomId()).isEqualTo(10L);
+        assertThat(decoded.messageId()).isEqualTo(99L);
+        assertThat(decoded.senderNickname()).isEqualTo("닉네임");
+        assertThat(decoded.message()).isEqualTo("안녕하세요");
+        assertThat(decoded.retryCount()).isEqualTo(2);
+    }
+
+    @Test
+    void write_version_1_이면_v1_객체로_기록하고_다시_읽음() throws Exception {
+        FcmNotificationEvent event = chatEvent("닉네임", "안녕하세요");
+
+        String payload = legacyCodec.encode(event);
+        FcmNotificationEvent decoded = codec.decode(payload);
+
+        assertThat(payload).startsWith("{");
+        assertThat(objectMapper.readTree(payload).path("body").asText()).isEqualTo("닉네임: 안녕하세요");
+        assertThat(decoded).isEqualTo(event);
+    }
+
+    @Test
+    void v2_뒤에_추가된_알_수_없는_필드는_건너뜀() {
+        FcmNotificationEvent event = chatEvent("닉네임", "안녕하세요");
+        String payload = codec.encode(event);
+        String extended = payload.substring(0, payload.length() - 1)
+                + ",\"future\",{\"nested\":[1,2]},[3,4],null]";
+
+        FcmNotificationEvent decoded = codec.decode(extended);
+
+        assertThat(decoded).isEqualTo(event.withBusinessKey(null));
+    }
+
+    @Test
+    void 메시지에_구분자가_있어도_v2_왕복_보존() {
+        FcmNotificationEvent event = chatEvent("닉네임", "시간: 10시: 정문 앞");
+
+        FcmNotificationEvent decoded = codec.decode(codec.encode(event));
+
+        assertThat(decoded.senderNickname()).isEqualTo("닉네임");
+        assertThat(decoded.message()).isEqualTo("시간: 10시: 정문 앞");
+    }
+
+    @Test
+    void 메시지에_구분자가_있어도_v1_첫_구분자에서만_분리() {
+        FcmNotificationEvent event = chatEvent("닉네임", "시간: 10시: 정문 앞");
+
+        FcmNotificationEvent decoded = codec.decode(legacyCodec.encode(event));
+
+        assertThat(decoded.senderNickname()).isEqualTo("닉네임");
+        assertThat(decoded.message()).isEqualTo("시간: 10시: 정문 앞");
+    }
+
+    @Test
+    void 지원하지_않는_버전은_거절() {
+        assertThatThrownBy(() -> codec.decode("[3,1,1,1,0,[],null,null,null,null]"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FcmEventCodec(objectMapper, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static FcmNotificationEvent chatEvent(String senderNickname, String message) {
+        return new FcmNotificationEvent(
+                1234567890123L, "chat:10:99", NotificationType.CHAT_MESSAGE, List.of(1L, 2L, 3L),
+                10L, 99L, senderNickname, message, 1_700_000_000_123L, 1);
+    }
+}